@@ -0,0 +1,32 @@
+package com.example.pets.application.service;
+
+import com.example.pets.domain.model.Pet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the updated {@link Pet} through {@link PetService#applyUpdates}: one validated copy per changed field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetServiceBenchmark {
+
+    private final Pet existing = new Pet(1L, "Toto", "Dog", 3, "Natasha");
+    private final Pet allFields = new Pet(null, "Koki", "Cat", 4, "Marija");
+    private final Pet nameOnly = Pet.builder().name("Koki").species("Dog").build();
+
+    @Benchmark
+    public Pet applyAllFields() {
+        return PetService.applyUpdates(existing, allFields);
+    }
+
+    @Benchmark
+    public Pet applyNameAndSpecies() {
+        return PetService.applyUpdates(existing, nameOnly);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded repository operations. {@link Contended} runs the same benchmarks with one thread per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class InMemoryPetRepositoryBenchmark {
+
+    private static final String[] SPECIES = {"Cat", "Dog", "Rabbit", "Parrot", "Hamster"};
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"ENTITY", "COMPACT"})
+    public InMemoryStorageProperties.Layout layout;
+
+    private InMemoryPetRepositoryAdapter repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryPetRepositoryAdapter(Mappers.getMapper(PetEntityMapper.class),
+                new InMemoryStorageProperties(layout));
+        for (int i = 0; i < size; i++) {
+            repository.save(pet(null, i));
+        }
+    }
+
+    @Benchmark
+    public Pet findById() {
+        return repository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Pet saveExisting() {
+        long id = randomId();
+        return repository.save(pet(id, (int) id));
+    }
+
+    // inserts and deletes in pairs so the repository keeps its size across iterations
+    @Benchmark
+    public boolean saveNewAndDelete() {
+        Pet saved = repository.save(pet(null, size));
+        repository.deleteById(saved.getId());
+        return saved.getId() != null;
+    }
+
+    @Benchmark
+    public List<Pet> findAll() {
+        return repository.findAll();
+    }
+
+    // "Pet42" matches Pet42 and Pet420..Pet429 etc., so the index has to stop at the limit
+    @Benchmark
+    public List<Pet> searchByNamePrefix() {
+        return repository.searchByName("Pet" + ThreadLocalRandom.current().nextInt(1, 100), 20);
+    }
+
+    // a transposed name has no prefix match and is only found through the deletion index
+    @Benchmark
+    public List<Pet> searchByNameTypo() {
+        return repository.searchByName("Pte" + randomId(), 20);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    private static Pet pet(Long id, int i) {
+        return new Pet(id, "Pet" + i, SPECIES[i % SPECIES.length], i % 20, "Owner" + (i % 1000));
+    }
+
+    @Threads(Threads.MAX)
+    public static class Contended extends InMemoryPetRepositoryBenchmark {
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a list of {@link PetResponse} in each negotiated format: JSON, CBOR, Smile and Protobuf
+ * (through {@code proto/pets.proto}). Payload sizes, plain and gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<PetResponse> pets = IntStream.range(0, size)
+                .mapToObj(i -> new PetResponse((long) i, "Pet" + i, "Cat", i % 20, "Owner" + (i % 1000), 1L))
+                .toList();
+        TypeReference<List<PetResponse>> listType = new TypeReference<>() { };
+        value = pets;
+        switch (format) {
+            case "json" -> useMapper(JsonMapper.builder().findAndAddModules().build(), listType);
+            case "cbor" -> useMapper(new CBORMapper(), listType);
+            case "smile" -> useMapper(new SmileMapper(), listType);
+            case "protobuf" -> {
+                ProtobufSchema schema = loadSchema().forType("PetList");
+                ProtobufMapper mapper = new ProtobufMapper();
+                writer = mapper.writer(schema);
+                reader = mapper.readerFor(PetList.class).with(schema);
+                value = new PetList(pets);
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+        encoded = writer.writeValueAsBytes(value);
+        System.out.printf("%n%s: %d bytes, %d gzipped%n", format, encoded.length, gzippedSize(encoded));
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private void useMapper(ObjectMapper mapper, TypeReference<List<PetResponse>> listType) {
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+    }
+
+    private static NativeProtobufSchema loadSchema() throws IOException {
+        try (InputStream in = EncodingBenchmark.class.getClassLoader().getResourceAsStream("proto/pets.proto")) {
+            return ProtobufSchemaLoader.std.loadNative(in, true);
+        }
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    public record PetList(List<PetResponse> pets) {
+    }
+}
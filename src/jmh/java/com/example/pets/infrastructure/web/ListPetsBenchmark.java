@@ -0,0 +1,66 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.application.service.PetService;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.infrastructure.persistence.inmemory.InMemoryPetRepositoryAdapter;
+import com.example.pets.infrastructure.persistence.inmemory.InMemoryStorageProperties;
+import com.example.pets.infrastructure.persistence.inmemory.PetEntityMapper;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list endpoint's path from the use case to response DTOs, one page of 100 pets at a time, per in-memory layout.
+ * Run with {@code -prof gc} to see the bytes allocated per page ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListPetsBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"ENTITY", "COMPACT", "SNAPSHOT"})
+    public InMemoryStorageProperties.Layout layout;
+
+    private PetService petService;
+    private final PetMapper petMapper = Mappers.getMapper(PetMapper.class);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryPetRepositoryAdapter repository = new InMemoryPetRepositoryAdapter(
+                Mappers.getMapper(PetEntityMapper.class), new InMemoryStorageProperties(layout));
+        for (int i = 0; i < size; i++) {
+            repository.save(new Pet(null, "Pet" + i, "Cat", i % 20, "Owner" + (i % 1000)));
+        }
+        petService = new PetService(repository, null);
+    }
+
+    @Benchmark
+    public PetPage readPage() {
+        return petService.getPetPage(randomAfterId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PetResponse> readAndMapPage() {
+        return petService.getPetPage(randomAfterId(), PAGE_SIZE).items().stream()
+                .map(petMapper::toResponse)
+                .toList();
+    }
+
+    private long randomAfterId() {
+        return ThreadLocalRandom.current().nextLong(0, size - PAGE_SIZE);
+    }
+}
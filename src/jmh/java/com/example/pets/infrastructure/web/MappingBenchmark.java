@@ -0,0 +1,38 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.infrastructure.persistence.inmemory.PetEntityMapper;
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct round-trips on the request, persistence and response paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final PetEntityMapper entityMapper = Mappers.getMapper(PetEntityMapper.class);
+    private final PetMapper petMapper = Mappers.getMapper(PetMapper.class);
+    private final Pet pet = new Pet(42L, "Bini", "Cat", 2, "Natasha");
+    private final PetCreateRequest request = new PetCreateRequest("Bini", "Cat", 2, "Natasha");
+
+    @Benchmark
+    public Pet entityRoundTrip() {
+        return entityMapper.toDomain(entityMapper.toEntity(pet));
+    }
+
+    @Benchmark
+    public PetResponse requestToResponse() {
+        return petMapper.toResponse(petMapper.toDomain(request));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.infrastructure.web.dto.PetFields;
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.json.PetJsonCache;
+import com.example.pets.infrastructure.web.json.PetJsonCacheProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of {@link PetResponse} lists, as returned by the list endpoint, against copying the same
+ * lists out of a warm {@link PetJsonCache} and writing them with {@code fields=id,name}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<PetResponse> pets;
+    private PetJsonCache cache;
+    private ObjectWriter partialWriter;
+    private PetFields idAndName;
+    private final Sink out = new Sink();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        writer = objectMapper.writerFor(new TypeReference<List<PetResponse>>() { });
+        pets = IntStream.range(0, size)
+                .mapToObj(i -> new PetResponse((long) i, "Pet" + i, "Cat", i % 20, "Owner" + (i % 1000), 1L))
+                .toList();
+        cache = new PetJsonCache(objectMapper, new PetJsonCacheProperties(true, size));
+        pets.forEach(cache::bytesOf);
+        partialWriter = objectMapper.writerFor(new TypeReference<List<PetRepresentation>>() { });
+        idAndName = PetFields.parse("id,name");
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public int serializeListToStream() throws Exception {
+        out.reset();
+        writer.writeValue(out, pets);
+        return out.size;
+    }
+
+    @Benchmark
+    public int writeListFromCache() throws Exception {
+        out.reset();
+        cache.writeArray(pets, out);
+        return out.size;
+    }
+
+    @Benchmark
+    public int writeListWithFields() throws Exception {
+        out.reset();
+        List<PetRepresentation> partial = pets.stream().map(idAndName::select).toList();
+        partialWriter.writeValue(out, partial);
+        return out.size;
+    }
+
+    // an unsynchronized growable buffer, like the servlet container's response buffer
+    private static final class Sink extends OutputStream {
+
+        private byte[] buffer = new byte[1 << 16];
+        private int size;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
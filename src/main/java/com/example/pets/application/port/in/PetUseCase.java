@@ -1,20 +1,61 @@
 package com.example.pets.application.port.in;
 
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.domain.model.PetStatistics;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface PetUseCase {
 
     Pet createPet(Pet pet);
 
-    Pet updatePet(Long id, Pet pet);
+    List<Pet> createPets(List<Pet> pets);
+
+    /**
+     * Applies the non-null fields of {@code pet} atomically. When {@code expectedVersion} is given the pet must
+     * still be at that version, otherwise nothing changes and a conflict is thrown.
+     */
+    Pet updatePet(Long id, Pet pet, Long expectedVersion);
+
+    /**
+     * Applies each update to the pet with its key as id. Returns the updated pets by id; ids with no pet are left out.
+     */
+    Map<Long, Pet> updatePets(Map<Long, Pet> updatesById);
 
     Pet getPet(Long id);
 
     void deletePet(Long id);
 
+    /**
+     * Deletes the given pets and returns the ids that existed.
+     */
+    Set<Long> deletePets(Collection<Long> ids);
+
     List<Pet> getAllPets();
-}
 
+    PetPage getPetPage(Long afterId, int limit);
+
+    Stream<Pet> streamAllPets();
+
+    List<Pet> getPetsMatching(String species, String ownerName);
+
+    List<Pet> getPetsByAge(Integer minAge, Integer maxAge, boolean oldestFirst, int limit);
+
+    /**
+     * Returns up to {@code limit} pets whose name or owner name matches {@code query}, best matches first.
+     */
+    List<Pet> searchByName(String query, int limit);
+
+    PetStatistics getStatistics();
+
+    /**
+     * Returns a counter that changes whenever any pet is written, so callers can tell cheaply that a list is unchanged.
+     */
+    long getModificationCount();
+}
 
@@ -2,29 +2,60 @@ package com.example.pets.application.service;
 
 import com.example.pets.application.port.in.PetUseCase;
 import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetChangeFeed;
 import com.example.pets.domain.ports.PetRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PetService implements PetUseCase {
 
     private final PetRepository petRepository;
+    private final PetChangeFeed changeFeed;
 
     @Override
     public Pet createPet(Pet pet) {
-        return petRepository.save(pet);
+        Pet created = petRepository.save(pet);
+        publish(changeFeed, PetChange.Type.CREATED, created);
+        return created;
     }
 
     @Override
-    public Pet updatePet(Long id, Pet petUpdates) {
-        Pet existing = petRepository.findById(id).orElseThrow(() -> new PetNotFoundException(id));
-        Pet updated = applyUpdates(existing, petUpdates);
-        return petRepository.save(updated);
+    public List<Pet> createPets(List<Pet> pets) {
+        List<Pet> created = petRepository.saveAll(pets);
+        created.forEach(pet -> publish(changeFeed, PetChange.Type.CREATED, pet));
+        return created;
+    }
+
+    @Override
+    public Pet updatePet(Long id, Pet petUpdates, Long expectedVersion) {
+        Pet updated = petRepository.update(id, existing -> {
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new PetVersionConflictException(id, expectedVersion, existing.getVersion());
+            }
+            return applyUpdates(existing, petUpdates);
+        }).orElseThrow(() -> new PetNotFoundException(id));
+        publish(changeFeed, PetChange.Type.UPDATED, updated);
+        return updated;
+    }
+
+    @Override
+    public Map<Long, Pet> updatePets(Map<Long, Pet> updatesById) {
+        Map<Long, UnaryOperator<Pet>> updaters = new HashMap<>();
+        updatesById.forEach((id, updates) -> updaters.put(id, existing -> applyUpdates(existing, updates)));
+        Map<Long, Pet> updated = petRepository.updateAll(updaters);
+        updated.values().forEach(pet -> publish(changeFeed, PetChange.Type.UPDATED, pet));
+        return updated;
     }
 
     @Override
@@ -34,10 +65,18 @@ public class PetService implements PetUseCase {
 
     @Override
     public void deletePet(Long id) {
-        if (!petRepository.existsById(id)) {
-            throw new PetNotFoundException(id);
+        Pet deleted = petRepository.deleteById(id).orElseThrow(() -> new PetNotFoundException(id));
+        publish(changeFeed, PetChange.Type.DELETED, deleted);
+    }
+
+    @Override
+    public Set<Long> deletePets(Collection<Long> ids) {
+        Set<Long> deleted = new HashSet<>();
+        for (Pet pet : petRepository.deleteAllById(ids)) {
+            publish(changeFeed, PetChange.Type.DELETED, pet);
+            deleted.add(pet.getId());
         }
-        petRepository.deleteById(id);
+        return deleted;
     }
 
     @Override
@@ -45,7 +84,71 @@ public class PetService implements PetUseCase {
         return petRepository.findAll();
     }
 
-    private Pet applyUpdates(Pet pet, Pet updates) {
+    @Override
+    public PetPage getPetPage(Long afterId, int limit) {
+        // one extra row tells us whether another page exists without a count query
+        List<Pet> pets = petRepository.findPage(afterId, limit + 1);
+        if (pets.size() <= limit) {
+            return new PetPage(pets, null);
+        }
+        List<Pet> items = pets.subList(0, limit);
+        return new PetPage(items, items.get(limit - 1).getId());
+    }
+
+    @Override
+    public Stream<Pet> streamAllPets() {
+        return petRepository.streamAll();
+    }
+
+    @Override
+    public List<Pet> getPetsMatching(String species, String ownerName) {
+        if (ownerName != null) {
+            // an owner has far fewer pets than a species, so narrow by owner and filter the rest
+            List<Pet> pets = petRepository.findByOwner(ownerName);
+            return species == null ? pets : pets.stream()
+                    .filter(pet -> pet.getSpecies().equalsIgnoreCase(species))
+                    .toList();
+        }
+        if (species != null) {
+            return petRepository.findBySpecies(species);
+        }
+        return petRepository.findAll();
+    }
+
+    @Override
+    public List<Pet> getPetsByAge(Integer minAge, Integer maxAge, boolean oldestFirst, int limit) {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("minAge must not be greater than maxAge");
+        }
+        return petRepository.findByAgeRange(minAge, maxAge, oldestFirst, limit);
+    }
+
+    @Override
+    public List<Pet> searchByName(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        return petRepository.searchByName(query.trim(), limit);
+    }
+
+    @Override
+    public PetStatistics getStatistics() {
+        return petRepository.statistics();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return petRepository.modificationCount();
+    }
+
+    // a delete is published at one past the deleted pet's version, so it outranks every earlier write to that pet
+    static void publish(PetChangeFeed changeFeed, PetChange.Type type, Pet pet) {
+        long version = type == PetChange.Type.DELETED ? pet.getVersion() + 1 : pet.getVersion();
+        changeFeed.publish(type, pet.getId(), version, type == PetChange.Type.DELETED ? null : pet);
+    }
+
+    // package-private for ReactivePetService and PetServiceBenchmark
+    static Pet applyUpdates(Pet pet, Pet updates) {
         if (updates.getName() != null) pet = pet.rename(updates.getName());
         if (updates.getSpecies() != null) pet = pet.changeSpecies(updates.getSpecies());
         if (updates.getAge() != null) pet = pet.updateAge(updates.getAge());
@@ -0,0 +1,15 @@
+package com.example.pets.domain.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ChangeFeedGapException extends RuntimeException {
+    private final long afterOffset;
+    private final long oldestOffset;
+
+    public ChangeFeedGapException(long afterOffset, long oldestOffset) {
+        super("Changes after offset " + afterOffset + " are no longer retained; the oldest is " + oldestOffset);
+        this.afterOffset = afterOffset;
+        this.oldestOffset = oldestOffset;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.pets.domain.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class PetVersionConflictException extends RuntimeException {
+    private final Long petId;
+    private final Long expectedVersion;
+    private final Long actualVersion;
+
+    public PetVersionConflictException(Long petId, Long expectedVersion, Long actualVersion) {
+        super("Pet " + petId + " is at version " + actualVersion + ", not " + expectedVersion);
+        this.petId = petId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+}
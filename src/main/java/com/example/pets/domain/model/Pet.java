@@ -12,8 +12,14 @@ public class Pet {
     private final String species;
     private final Integer age;
     private final String ownerName;
+    // assigned by the repository on every write; null until the pet is first saved
+    private final Long version;
 
     public Pet(Long id, String name, String species, Integer age, String ownerName) {
+        this(id, name, species, age, ownerName, null);
+    }
+
+    public Pet(Long id, String name, String species, Integer age, String ownerName, Long version) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Name is required");
         }
@@ -29,32 +35,39 @@ public class Pet {
         this.species = species;
         this.age = age;
         this.ownerName = ownerName;
+        this.version = version;
     }
 
     public Pet rename(String newName) {
         if (newName == null || newName.isBlank()) {
             throw new IllegalArgumentException("Name cannot be empty");
         }
-        return new Pet(this.id, newName, this.species, this.age, this.ownerName);
+        return new Pet(this.id, newName, this.species, this.age, this.ownerName, this.version);
     }
 
     public Pet changeSpecies(String newSpecies) {
         if (newSpecies == null || newSpecies.isBlank()) {
             throw new IllegalArgumentException("Species cannot be empty");
         }
-        return new Pet(this.id, this.name, newSpecies, this.age, this.ownerName);
+        return new Pet(this.id, this.name, newSpecies, this.age, this.ownerName, this.version);
     }
 
     public Pet updateAge(Integer newAge) {
         if (newAge != null && newAge < 0) {
             throw new IllegalArgumentException("Age must be >= 0");
         }
-        return new Pet(this.id, this.name, this.species, newAge, this.ownerName);
+        return new Pet(this.id, this.name, this.species, newAge, this.ownerName, this.version);
     }
 
     public Pet changeOwner(String newOwner) {
-        return new Pet(this.id, this.name, this.species, this.age, newOwner);
+        return new Pet(this.id, this.name, this.species, this.age, newOwner, this.version);
     }
-}
 
+    public Pet withId(Long newId) {
+        return new Pet(newId, this.name, this.species, this.age, this.ownerName, this.version);
+    }
 
+    public Pet withVersion(Long newVersion) {
+        return new Pet(this.id, this.name, this.species, this.age, this.ownerName, newVersion);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.pets.domain.model;
+
+/**
+ * One write in the change feed. Offsets increase by one per change; {@code pet} is the pet as written, or
+ * {@code null} for a delete. {@code version} is the version the write was applied at: the written pet's, or one past
+ * the deleted pet's for a delete. Changes to one pet written concurrently may be offset in a different order than
+ * they were applied; their versions order them.
+ */
+public record PetChange(long offset, Type type, Long petId, long version, Pet pet) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.pets.domain.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of pets ordered by id. {@code nextAfterId} is the id to continue from,
+ * or {@code null} when this is the last page.
+ */
+public record PetPage(List<Pet> items, Long nextAfterId) {
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+}
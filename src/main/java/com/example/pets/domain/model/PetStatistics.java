@@ -0,0 +1,16 @@
+package com.example.pets.domain.model;
+
+import java.util.Map;
+
+/**
+ * Aggregate counts over all pets. Species and owners are grouped case-insensitively; species keys are lower-cased.
+ * {@code ownersByPetCount} maps a number of pets to how many owners have exactly that many.
+ */
+public record PetStatistics(
+        long totalPets,
+        Map<String, Long> petsBySpecies,
+        Map<Integer, Long> petsByAge,
+        long petsWithoutAge,
+        Map<Integer, Long> ownersByPetCount,
+        long petsWithoutOwner) {
+}
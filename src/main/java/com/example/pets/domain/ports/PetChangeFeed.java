@@ -0,0 +1,31 @@
+package com.example.pets.domain.ports;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+
+import java.time.Duration;
+import java.util.List;
+
+public interface PetChangeFeed {
+    /**
+     * Appends a change and returns it with its offset. Never blocks on readers.
+     */
+    PetChange publish(PetChange.Type type, Long petId, long version, Pet pet);
+
+    /**
+     * Returns the offset of the latest change, or 0 before the first one.
+     */
+    long lastOffset();
+
+    /**
+     * Returns up to {@code limit} changes with an offset greater than {@code afterOffset}, oldest first.
+     * Throws {@link com.example.pets.domain.exceptions.ChangeFeedGapException} when some of them are no longer retained.
+     */
+    List<PetChange> readAfter(long afterOffset, int limit);
+
+    /**
+     * Like {@link #readAfter}, but waits up to {@code timeout} for a change when there is none yet.
+     * Returns an empty list on timeout or interrupt.
+     */
+    List<PetChange> awaitAfter(long afterOffset, int limit, Duration timeout);
+}
@@ -1,19 +1,109 @@
 package com.example.pets.domain.ports;
 
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public interface PetRepository {
+    /**
+     * Inserts or replaces the pet. The stored version is one more than the version it replaces, or 1 for a new pet;
+     * the pet's own version is ignored. A pet with an id that is not stored is inserted under that id, except by
+     * adapters whose ids come from a database sequence, which reject it.
+     */
     Pet save(Pet pet);
 
+    /**
+     * Stores the pet exactly as given, id and version included, for replaying a log or loading a snapshot. Every
+     * other write goes through {@link #save} or {@link #update}, so that a change always gets a new version.
+     */
+    Pet restore(Pet pet);
+
+    /**
+     * Saves every pet in one round trip where the adapter supports it, returning them in input order.
+     */
+    List<Pet> saveAll(List<Pet> pets);
+
+    /**
+     * Atomically replaces the pet with {@code updater}'s result and bumps its version; concurrent updates of the same
+     * pet never overwrite each other. Returns empty when there is no such pet. If the updater throws, nothing changes.
+     */
+    Optional<Pet> update(Long id, UnaryOperator<Pet> updater);
+
+    /**
+     * Applies {@link #update} to every id in one pass where the adapter supports it. Returns the updated pets by id;
+     * ids with no pet are left out.
+     */
+    Map<Long, Pet> updateAll(Map<Long, UnaryOperator<Pet>> updaters);
+
     Optional<Pet> findById(Long id);
 
+    /**
+     * Returns the pets that exist among {@code ids}, in no particular order.
+     */
+    List<Pet> findAllById(Collection<Long> ids);
+
     List<Pet> findAll();
 
-    void deleteById(Long id);
+    /**
+     * Returns up to {@code limit} pets with an id greater than {@code afterId} (or from the start
+     * when {@code afterId} is null), in ascending id order.
+     */
+    List<Pet> findPage(Long afterId, int limit);
+
+    /**
+     * Lazily streams every pet in ascending id order. Callers must close the stream.
+     */
+    Stream<Pet> streamAll();
+
+    /**
+     * Returns the pets of the given species, matched case-insensitively, in ascending id order.
+     */
+    List<Pet> findBySpecies(String species);
+
+    /**
+     * Returns the pets of the given owner, matched case-insensitively, in ascending id order.
+     */
+    List<Pet> findByOwner(String ownerName);
+
+    /**
+     * Returns up to {@code limit} pets whose age lies in {@code [minAge, maxAge]} (either bound may be null),
+     * youngest first, or oldest first when {@code descending}. Pets without an age are never returned.
+     */
+    List<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit);
+
+    /**
+     * Returns up to {@code limit} pets whose name or owner name matches {@code query} case-insensitively, best matches
+     * first. Names match before owner names and prefix matches before fuzzy ones. Adapters with a text index match
+     * any word of the name and tolerate one typo; others only match at the start of the name.
+     */
+    List<Pet> searchByName(String query, int limit);
+
+    /**
+     * Returns counts over all pets. Adapters that keep them up to date on every write answer without reading any pet.
+     */
+    PetStatistics statistics();
+
+    /**
+     * Deletes the pet and returns it as it was when deleted, or empty if it did not exist.
+     */
+    Optional<Pet> deleteById(Long id);
+
+    /**
+     * Deletes every pet among {@code ids} and returns the ones that actually existed, as they were when deleted.
+     */
+    List<Pet> deleteAllById(Collection<Long> ids);
 
     boolean existsById(Long id);
-}
 
+    /**
+     * Returns a counter that grows after every write through this repository, for cheap change detection. A read
+     * made after reading the counter is never older than the value read. It starts over when the application restarts.
+     */
+    long modificationCount();
+}
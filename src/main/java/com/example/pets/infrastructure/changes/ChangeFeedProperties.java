@@ -0,0 +1,18 @@
+package com.example.pets.infrastructure.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param capacity       how many recent changes are kept for readers to resume from; rounded up to a power of two
+ * @param maxSubscribers how many change streams may be open at once
+ * @param heartbeat      how often an idle stream sends a comment, which also notices clients that went away
+ */
+@ConfigurationProperties(prefix = "pets.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("4096") int capacity,
+        @DefaultValue("100") int maxSubscribers,
+        @DefaultValue("15s") Duration heartbeat) {
+}
@@ -0,0 +1,100 @@
+package com.example.pets.infrastructure.changes;
+
+import com.example.pets.domain.exceptions.ChangeFeedGapException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.ports.PetChangeFeed;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps the latest changes in a fixed ring: a writer claims an offset with one atomic increment, stores its change
+ * in the slot for that offset and unparks waiting readers, so writers never wait for each other or for readers.
+ * A reader that falls a full ring behind finds its next slot overwritten and gets a {@link ChangeFeedGapException}.
+ * <p>
+ * Offsets are claimed before slots are filled, so a reader can meet a claimed slot that still holds an older
+ * change. It stops there and picks the change up on its next read; the writer's unpark wakes it if it waits.
+ */
+@Component
+public class RingBufferPetChangeFeed implements PetChangeFeed {
+
+    private final AtomicReferenceArray<PetChange> ring;
+    private final int mask;
+    private final AtomicLong lastOffset = new AtomicLong();
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+
+    public RingBufferPetChangeFeed(ChangeFeedProperties properties) {
+        int capacity = Integer.highestOneBit(Math.max(1, properties.capacity() - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public PetChange publish(PetChange.Type type, Long petId, long version, Pet pet) {
+        PetChange change = new PetChange(lastOffset.incrementAndGet(), type, petId, version, pet);
+        ring.set(slot(change.offset()), change);
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+        return change;
+    }
+
+    @Override
+    public long lastOffset() {
+        return lastOffset.get();
+    }
+
+    @Override
+    public List<PetChange> readAfter(long afterOffset, int limit) {
+        long last = lastOffset.get();
+        long oldest = Math.max(1, last - ring.length() + 1);
+        if (afterOffset + 1 < oldest) {
+            throw new ChangeFeedGapException(afterOffset, oldest);
+        }
+        List<PetChange> changes = new ArrayList<>();
+        for (long offset = afterOffset + 1; offset <= last && changes.size() < limit; offset++) {
+            PetChange change = ring.get(slot(offset));
+            if (change == null || change.offset() < offset) {
+                // claimed but not stored yet
+                break;
+            }
+            if (change.offset() > offset) {
+                throw new ChangeFeedGapException(afterOffset, change.offset() - ring.length() + 1);
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    @Override
+    public List<PetChange> awaitAfter(long afterOffset, int limit, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Thread current = Thread.currentThread();
+        // registered before the first read, so a change published in between unparks us and the park returns at once
+        waiters.add(current);
+        try {
+            while (true) {
+                List<PetChange> changes = readAfter(afterOffset, limit);
+                long remaining = deadline - System.nanoTime();
+                if (!changes.isEmpty() || remaining <= 0 || current.isInterrupted()) {
+                    return changes;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    private int slot(long offset) {
+        return (int) (offset & mask);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.pets.infrastructure.metrics;
+
+import com.example.pets.application.port.in.PetUseCase;
+import com.example.pets.domain.ports.PetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "pets.metrics", name = "enabled", matchIfMissing = true)
+public class MetricsConfig {
+
+    static final String USE_CASE_METRIC = "pets.usecase";
+    static final String REPOSITORY_METRIC = "pets.repository";
+
+    /**
+     * Times every call through the {@link PetUseCase} and {@link PetRepository} ports. Runs after the other
+     * repository decorators so the timings include them.
+     */
+    @Bean
+    static BeanPostProcessor portMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PortMetricsPostProcessor(meterRegistry);
+    }
+
+    private static final class PortMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private PortMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        // adapters that publish their own gauges are bound here, before any decorator hides them
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof PetRepository && bean instanceof MeterBinder binder) {
+                binder.bindTo(meterRegistry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            // resolved lazily: asking for the registry when this post-processor is created would initialize it too early
+            if (bean instanceof PetRepository repository) {
+                return PortMetrics.wrap(PetRepository.class, repository, meterRegistry.getObject(), REPOSITORY_METRIC);
+            }
+            if (bean instanceof PetUseCase useCase) {
+                return PortMetrics.wrap(PetUseCase.class, useCase, meterRegistry.getObject(), USE_CASE_METRIC);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return 200;
+        }
+    }
+}
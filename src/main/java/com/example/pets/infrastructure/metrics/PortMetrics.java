@@ -0,0 +1,74 @@
+package com.example.pets.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call through a port interface. One timer per method is registered up front, so a call costs two
+ * {@link System#nanoTime()} reads and a histogram update; the error counter is only looked up when a call fails.
+ * Methods returning a stream are timed until the stream is returned, not until it is consumed.
+ */
+final class PortMetrics implements InvocationHandler {
+
+    private final Object target;
+    private final MeterRegistry registry;
+    private final String name;
+    private final Map<Method, Timer> timers = new HashMap<>();
+
+    private PortMetrics(Class<?> port, Object target, MeterRegistry registry, String name) {
+        this.target = target;
+        this.registry = registry;
+        this.name = name;
+        for (Method method : port.getMethods()) {
+            timers.put(method, Timer.builder(name)
+                    .description("Calls through the " + port.getSimpleName() + " port")
+                    .tag("operation", method.getName())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    static <T> T wrap(Class<T> port, T target, MeterRegistry registry, String name) {
+        return port.cast(Proxy.newProxyInstance(port.getClassLoader(), new Class<?>[]{port},
+                new PortMetrics(port, target, registry, name)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            // equals, hashCode and toString
+            return invokeTarget(method, args);
+        }
+        long start = System.nanoTime();
+        try {
+            return invokeTarget(method, args);
+        } catch (Throwable ex) {
+            Counter.builder(name + ".errors")
+                    .tag("operation", method.getName())
+                    .tag("exception", ex.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw ex;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
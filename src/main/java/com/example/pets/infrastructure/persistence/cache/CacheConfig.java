@@ -0,0 +1,56 @@
+package com.example.pets.infrastructure.persistence.cache;
+
+import com.example.pets.domain.ports.PetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "pets.cache", name = "enabled", havingValue = "true")
+public class CacheConfig {
+
+    /**
+     * Wraps the active {@link PetRepository} in a {@link CachingPetRepository}. Runs after the durability decorator,
+     * so cache hits skip the log entirely, and before the metrics decorator, so repository timings include hits.
+     */
+    @Bean
+    static BeanPostProcessor cachingPetRepositoryPostProcessor(Environment environment,
+                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CachingPostProcessor(environment, meterRegistry);
+    }
+
+    private static final class CachingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        private CachingPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof PetRepository repository)) {
+                return bean;
+            }
+            // bound by hand: injecting the properties bean would initialize it before post-processors are ready
+            CacheProperties properties = Binder.get(environment).bindOrCreate("pets.cache", CacheProperties.class);
+            CachingPetRepository caching = new CachingPetRepository(repository, properties);
+            meterRegistry.ifAvailable(caching::bindTo);
+            return caching;
+        }
+
+        @Override
+        public int getOrder() {
+            return 100;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.pets.infrastructure.persistence.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maximumSize how many pets are kept; past it the least valuable entries are evicted
+ * @param timeToLive  how long a cached pet is served before it is read from the repository again
+ */
+@ConfigurationProperties(prefix = "pets.cache")
+public record CacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration timeToLive) {
+}
@@ -0,0 +1,184 @@
+package com.example.pets.infrastructure.persistence.cache;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of pets by id in front of any {@link PetRepository}. Caffeine's W-TinyLFU policy only admits a
+ * new pet when it is read more often than the one it would evict, so a skewed read pattern keeps its popular pets
+ * cached even when a scan reads many others once.
+ * <p>
+ * Writes go to the delegate first and then invalidate the affected ids. Caffeine loads under the key's lock, so an
+ * invalidation that races a load waits for it and removes what it loaded; a stale pet is never left behind.
+ * Lists and queries are not cached and always go to the delegate.
+ */
+public class CachingPetRepository implements PetRepository {
+
+    static final String CACHE_NAME = "pets";
+
+    private final PetRepository delegate;
+    private final Cache<Long, Pet> cache;
+
+    public CachingPetRepository(PetRepository delegate, CacheProperties properties) {
+        this(delegate, properties, Ticker.systemTicker());
+    }
+
+    CachingPetRepository(PetRepository delegate, CacheProperties properties, Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.timeToLive())
+                .ticker(ticker)
+                // evictions and loads run on the calling thread instead of the common pool
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Pet save(Pet pet) {
+        Pet saved = delegate.save(pet);
+        cache.invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public Pet restore(Pet pet) {
+        Pet restored = delegate.restore(pet);
+        cache.invalidate(restored.getId());
+        return restored;
+    }
+
+    @Override
+    public List<Pet> saveAll(List<Pet> pets) {
+        List<Pet> saved = delegate.saveAll(pets);
+        cache.invalidateAll(saved.stream().map(Pet::getId).toList());
+        return saved;
+    }
+
+    @Override
+    public Optional<Pet> update(Long id, UnaryOperator<Pet> updater) {
+        try {
+            return delegate.update(id, updater);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public Map<Long, Pet> updateAll(Map<Long, UnaryOperator<Pet>> updaters) {
+        try {
+            return delegate.updateAll(updaters);
+        } finally {
+            cache.invalidateAll(updaters.keySet());
+        }
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        // a missing pet is not cached, so one created later is found right away
+        return Optional.ofNullable(cache.get(id, key -> delegate.findById(key).orElse(null)));
+    }
+
+    @Override
+    public List<Pet> findAllById(Collection<Long> ids) {
+        Map<Long, Pet> found = cache.getAll(ids, missing -> delegate.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity())));
+        return List.copyOf(found.values());
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Pet> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Pet> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Pet> findBySpecies(String species) {
+        return delegate.findBySpecies(species);
+    }
+
+    @Override
+    public List<Pet> findByOwner(String ownerName) {
+        return delegate.findByOwner(ownerName);
+    }
+
+    @Override
+    public List<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit) {
+        return delegate.findByAgeRange(minAge, maxAge, descending, limit);
+    }
+
+    @Override
+    public List<Pet> searchByName(String query, int limit) {
+        return delegate.searchByName(query, limit);
+    }
+
+    @Override
+    public PetStatistics statistics() {
+        return delegate.statistics();
+    }
+
+    @Override
+    public Optional<Pet> deleteById(Long id) {
+        try {
+            return delegate.deleteById(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public List<Pet> deleteAllById(Collection<Long> ids) {
+        try {
+            return delegate.deleteAllById(ids);
+        } finally {
+            cache.invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return cache.getIfPresent(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public long modificationCount() {
+        return delegate.modificationCount();
+    }
+
+    /**
+     * Called once by {@link CacheConfig}. Not a {@code MeterBinder}: Spring Boot would bind it a second time.
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+}
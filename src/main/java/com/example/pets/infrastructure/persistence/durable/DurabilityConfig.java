@@ -0,0 +1,79 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import com.example.pets.domain.ports.PetRepository;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "pets.durability", name = "enabled", havingValue = "true")
+public class DurabilityConfig {
+
+    /**
+     * Wraps the active {@link PetRepository} adapter in a {@link DurablePetRepository} and recovers it
+     * before anything can use it. Runs before the other repository decorators so it sits closest to the adapter.
+     * Decorators around it hide {@link AutoCloseable}, so the post-processor closes the log itself when the bean is
+     * destroyed.
+     */
+    @Bean
+    static BeanPostProcessor durablePetRepositoryPostProcessor(Environment environment) {
+        return new DurablePostProcessor(environment);
+    }
+
+    private static final class DurablePostProcessor implements DestructionAwareBeanPostProcessor, Ordered {
+
+        private final Environment environment;
+        private final Map<String, DurablePetRepository> opened = new ConcurrentHashMap<>();
+
+        private DurablePostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof PetRepository repository)) {
+                return bean;
+            }
+            // bound by hand: injecting the properties bean would initialize it before post-processors are ready
+            DurabilityProperties properties = Binder.get(environment)
+                    .bindOrCreate("pets.durability", DurabilityProperties.class);
+            DurablePetRepository durable = new DurablePetRepository(repository, properties);
+            try {
+                durable.recover();
+            } catch (IOException ex) {
+                throw new BeanCreationException(beanName, "Could not recover pets from " + properties.directory(), ex);
+            }
+            opened.put(beanName, durable);
+            return durable;
+        }
+
+        @Override
+        public boolean requiresDestruction(Object bean) {
+            return bean instanceof PetRepository;
+        }
+
+        @Override
+        public void postProcessBeforeDestruction(Object bean, String beanName) throws BeansException {
+            DurablePetRepository durable = opened.remove(beanName);
+            if (durable != null) {
+                durable.close();
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
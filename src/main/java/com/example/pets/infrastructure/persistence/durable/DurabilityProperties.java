@@ -0,0 +1,23 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param directory         where WAL segments and snapshots are kept
+ * @param groupCommitWindow how long the log writer waits for more records before an fsync; zero batches only
+ *                          what queued up during the previous fsync
+ * @param fsync             force every batch to disk; turning it off trades durability for latency
+ * @param snapshotInterval  how often a snapshot is taken (when anything was written since the last one)
+ */
+@ConfigurationProperties(prefix = "pets.durability")
+public record DurabilityProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data") Path directory,
+        @DefaultValue("0ms") Duration groupCommitWindow,
+        @DefaultValue("true") boolean fsync,
+        @DefaultValue("5m") Duration snapshotInterval) {
+}
@@ -0,0 +1,416 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Makes any {@link PetRepository} durable: every write is applied to the delegate, appended to a
+ * {@link WriteAheadLog} and acknowledged once the log is on disk. Snapshots of the delegate are taken
+ * periodically and the log segments behind them are deleted. On startup {@link #recover()} loads the
+ * latest snapshot and replays the log tail into the delegate.
+ * <p>
+ * Log records are full upserts and deletes, so replaying a record twice is harmless. That lets a
+ * snapshot run while writes continue: it only needs to start after the log rotation it is named after.
+ */
+@Slf4j
+public class DurablePetRepository implements PetRepository, AutoCloseable {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final long SNAPSHOT_MAGIC = 0x504554534E415031L; // "PETSNAP1"
+    private static final int STRIPES = 256;
+
+    private final PetRepository delegate;
+    private final DurabilityProperties properties;
+    private final Path directory;
+    // keeps "apply to delegate" and "append to log" in the same order for writes to one id
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicLong writesSinceSnapshot = new AtomicLong();
+    private WriteAheadLog wal;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public DurablePetRepository(PetRepository delegate, DurabilityProperties properties) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.directory = properties.directory();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Loads the latest snapshot and log tail into the delegate, then opens a fresh log segment and starts
+     * the snapshot schedule. Must be called once before the repository is used.
+     */
+    public void recover() throws IOException {
+        Files.createDirectories(directory);
+        deleteMatching(path -> path.getFileName().toString().endsWith(".tmp"));
+
+        long replayFrom = 0;
+        long snapshotPets = 0;
+        Optional<Path> snapshot = latestSnapshot();
+        if (snapshot.isPresent()) {
+            replayFrom = snapshotSequence(snapshot.get());
+            snapshotPets = loadSnapshot(snapshot.get());
+        }
+
+        long nextSequence = replayFrom;
+        long replayed = 0;
+        for (Path segment : segmentsFrom(replayFrom)) {
+            long start = WriteAheadLog.segmentStart(segment);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(segment))) {
+                long count = WalCodec.readAll(in, this::replay);
+                replayed += count;
+                nextSequence = Math.max(nextSequence, start + count);
+            }
+        }
+        log.info("Recovered {} pets from snapshot and {} log records from {}", snapshotPets, replayed, directory);
+
+        wal = new WriteAheadLog(directory, nextSequence, properties.groupCommitWindow(), properties.fsync());
+        long interval = properties.snapshotInterval().toMillis();
+        if (interval > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pet-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Pet save(Pet pet) {
+        CompletableFuture<Long> logged;
+        Pet saved;
+        if (pet.getId() == null) {
+            saved = delegate.save(pet);
+            logged = appendCreated(saved.getId());
+        } else {
+            synchronized (stripe(pet.getId())) {
+                saved = delegate.save(pet);
+                logged = wal.append(WalCodec.put(saved));
+            }
+        }
+        awaitDurable(logged);
+        return saved;
+    }
+
+    @Override
+    public Pet restore(Pet pet) {
+        CompletableFuture<Long> logged;
+        Pet restored;
+        synchronized (stripe(pet.getId())) {
+            restored = delegate.restore(pet);
+            logged = wal.append(WalCodec.put(restored));
+        }
+        awaitDurable(logged);
+        return restored;
+    }
+
+    @Override
+    public List<Pet> saveAll(List<Pet> pets) {
+        List<Pet> saved = new ArrayList<>(pets.size());
+        CompletableFuture<?>[] logged = new CompletableFuture<?>[pets.size()];
+        for (int i = 0; i < logged.length; i++) {
+            Pet pet = pets.get(i);
+            if (pet.getId() == null) {
+                Pet stored = delegate.save(pet);
+                logged[i] = appendCreated(stored.getId());
+                saved.add(stored);
+                continue;
+            }
+            synchronized (stripe(pet.getId())) {
+                Pet stored = delegate.save(pet);
+                logged[i] = wal.append(WalCodec.put(stored));
+                saved.add(stored);
+            }
+        }
+        // queued back to back, so the whole batch usually shares one fsync
+        awaitDurable(CompletableFuture.allOf(logged));
+        return saved;
+    }
+
+    @Override
+    public Optional<Pet> update(Long id, UnaryOperator<Pet> updater) {
+        CompletableFuture<Long> logged;
+        Optional<Pet> updated;
+        synchronized (stripe(id)) {
+            updated = delegate.update(id, updater);
+            if (updated.isEmpty()) {
+                return updated;
+            }
+            logged = wal.append(WalCodec.put(updated.get()));
+        }
+        awaitDurable(logged);
+        return updated;
+    }
+
+    @Override
+    public Map<Long, Pet> updateAll(Map<Long, UnaryOperator<Pet>> updaters) {
+        Map<Long, Pet> updated = new HashMap<>();
+        List<CompletableFuture<Long>> logged = new ArrayList<>(updaters.size());
+        updaters.forEach((id, updater) -> {
+            synchronized (stripe(id)) {
+                delegate.update(id, updater).ifPresent(pet -> {
+                    updated.put(id, pet);
+                    logged.add(wal.append(WalCodec.put(pet)));
+                });
+            }
+        });
+        awaitDurable(CompletableFuture.allOf(logged.toArray(new CompletableFuture<?>[0])));
+        return updated;
+    }
+
+    @Override
+    public Optional<Pet> deleteById(Long id) {
+        Optional<Pet> deleted;
+        CompletableFuture<Long> logged;
+        synchronized (stripe(id)) {
+            deleted = delegate.deleteById(id);
+            if (deleted.isEmpty()) {
+                return deleted;
+            }
+            logged = wal.append(WalCodec.delete(id));
+        }
+        awaitDurable(logged);
+        return deleted;
+    }
+
+    @Override
+    public List<Pet> deleteAllById(Collection<Long> ids) {
+        List<Pet> deleted = new ArrayList<>();
+        List<CompletableFuture<Long>> logged = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            synchronized (stripe(id)) {
+                Optional<Pet> removed = delegate.deleteById(id);
+                if (removed.isPresent()) {
+                    deleted.add(removed.get());
+                    logged.add(wal.append(WalCodec.delete(id)));
+                }
+            }
+        }
+        awaitDurable(CompletableFuture.allOf(logged.toArray(new CompletableFuture<?>[0])));
+        return deleted;
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Pet> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Pet> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Pet> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Pet> findBySpecies(String species) {
+        return delegate.findBySpecies(species);
+    }
+
+    @Override
+    public List<Pet> findByOwner(String ownerName) {
+        return delegate.findByOwner(ownerName);
+    }
+
+    @Override
+    public List<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit) {
+        return delegate.findByAgeRange(minAge, maxAge, descending, limit);
+    }
+
+    @Override
+    public List<Pet> searchByName(String query, int limit) {
+        return delegate.searchByName(query, limit);
+    }
+
+    @Override
+    public PetStatistics statistics() {
+        return delegate.statistics();
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public long modificationCount() {
+        return delegate.modificationCount();
+    }
+
+    /**
+     * Writes a snapshot of the delegate and deletes the log segments and snapshots it supersedes.
+     */
+    public synchronized void snapshot() throws IOException {
+        writesSinceSnapshot.set(0);
+        long sequence = wal.rotate().join();
+        Path target = directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(sequence) + SNAPSHOT_SUFFIX);
+        if (Files.exists(target)) {
+            // nothing was logged since that snapshot was taken
+            return;
+        }
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             Stream<Pet> pets = delegate.streamAll()) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeLong(SNAPSHOT_MAGIC);
+            for (Iterator<Pet> it = pets.iterator(); it.hasNext(); count++) {
+                out.write(WalCodec.put(it.next()));
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        // the rename must be on disk before the files it replaces are deleted, or a crash could keep only the deletes
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+        deleteMatching(path -> {
+            long segmentStart = WriteAheadLog.segmentStart(path);
+            long snapshotSequence = snapshotSequence(path);
+            return (segmentStart >= 0 && segmentStart < sequence) || (snapshotSequence >= 0 && snapshotSequence < sequence);
+        });
+        log.info("Wrote snapshot of {} pets at log sequence {}", count, sequence);
+    }
+
+    /**
+     * Stops the snapshot schedule, waiting for a snapshot in progress, then closes the log once every write queued
+     * before the call is on disk. Closing twice is harmless.
+     */
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            try {
+                if (!snapshotScheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                    log.warn("Snapshot still running at shutdown, closing the log under it");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    private void snapshotIfChanged() {
+        if (writesSinceSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Snapshot failed, the log keeps growing until the next attempt", ex);
+        }
+    }
+
+    /**
+     * Logs a pet the delegate has just created. Its id cannot be locked before the delegate generates it, and from
+     * then on the pet is visible, so an update or delete of it may already have been applied and logged. Logging the
+     * pet as the delegate holds it now, under the id's lock, keeps the log in the order the writes were applied.
+     */
+    private CompletableFuture<Long> appendCreated(Long id) {
+        synchronized (stripe(id)) {
+            return wal.append(delegate.findById(id).map(WalCodec::put).orElseGet(() -> WalCodec.delete(id)));
+        }
+    }
+
+    private void awaitDurable(CompletableFuture<?> logged) {
+        try {
+            logged.join();
+            writesSinceSnapshot.incrementAndGet();
+        } catch (CompletionException ex) {
+            // the delegate already holds the change; it is only at risk until the next successful snapshot
+            throw new IllegalStateException("Write could not be made durable", ex.getCause());
+        }
+    }
+
+    private void replay(WalCodec.Entry entry) {
+        if (entry.type() == WalCodec.PUT) {
+            delegate.restore(entry.pet());
+        } else {
+            delegate.deleteById(entry.id());
+        }
+    }
+
+    private long loadSnapshot(Path snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+            if (in.readLong() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a pet snapshot: " + snapshot);
+            }
+            // the log segments it covers are gone, so a damaged snapshot cannot be recovered by stopping early
+            return WalCodec.readComplete(in, this::replay);
+        } catch (IOException ex) {
+            throw new IOException("Snapshot " + snapshot + " is damaged", ex);
+        }
+    }
+
+    private Optional<Path> latestSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> snapshotSequence(path) >= 0)
+                    .max(Comparator.comparingLong(DurablePetRepository::snapshotSequence));
+        }
+    }
+
+    private List<Path> segmentsFrom(long sequence) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> WriteAheadLog.segmentStart(path) >= sequence)
+                    .sorted(Comparator.comparingLong(WriteAheadLog::segmentStart))
+                    .toList();
+        }
+    }
+
+    private void deleteMatching(Predicate<Path> predicate) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(predicate).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static long snapshotSequence(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SNAPSHOT_PREFIX) || !name.endsWith(SNAPSHOT_SUFFIX)) {
+            return -1;
+        }
+        return Long.parseLong(name, SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length(), 10);
+    }
+
+    private Object stripe(Long id) {
+        return stripes[Long.hashCode(id) & (STRIPES - 1)];
+    }
+}
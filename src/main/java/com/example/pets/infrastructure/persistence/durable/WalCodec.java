@@ -0,0 +1,138 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import com.example.pets.domain.model.Pet;
+
+import java.io.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Binary framing shared by WAL segments and snapshots. A frame is {@code [int length][int crc32][payload]};
+ * the payload is a type byte, the pet id and, for puts, the pet's fields and version.
+ */
+final class WalCodec {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int MAX_FRAME_LENGTH = 1 << 20;
+    private static final int NO_AGE = -1;
+
+    private WalCodec() {
+    }
+
+    record Entry(byte type, long id, Pet pet) {
+    }
+
+    static byte[] put(Pet pet) {
+        return frame(out -> {
+            out.writeByte(PUT);
+            out.writeLong(pet.getId());
+            out.writeUTF(pet.getName());
+            out.writeUTF(pet.getSpecies());
+            out.writeInt(pet.getAge() != null ? pet.getAge() : NO_AGE);
+            out.writeBoolean(pet.getOwnerName() != null);
+            if (pet.getOwnerName() != null) {
+                out.writeUTF(pet.getOwnerName());
+            }
+            out.writeLong(pet.getVersion());
+        });
+    }
+
+    static byte[] delete(long id) {
+        return frame(out -> {
+            out.writeByte(DELETE);
+            out.writeLong(id);
+        });
+    }
+
+    /**
+     * Reads frames until end of input or the first torn or corrupt frame, which marks the end of what
+     * was durably written. Returns the number of frames read.
+     */
+    static long readAll(InputStream input, Consumer<Entry> consumer) throws IOException {
+        return read(input, consumer, false);
+    }
+
+    /**
+     * Reads frames until end of input, for files that were complete on disk before anything relied on
+     * them: a torn or corrupt frame is damage, not a crash during the write, and fails the read.
+     */
+    static long readComplete(InputStream input, Consumer<Entry> consumer) throws IOException {
+        return read(input, consumer, true);
+    }
+
+    private static long read(InputStream input, Consumer<Entry> consumer, boolean complete) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        long count = 0;
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException ex) {
+                return count;
+            }
+            byte[] payload = null;
+            int checksum = 0;
+            if (length > 0 && length <= MAX_FRAME_LENGTH) {
+                try {
+                    checksum = in.readInt();
+                    payload = in.readNBytes(length);
+                } catch (EOFException ex) {
+                    // torn inside the frame header, handled like a short payload below
+                }
+            }
+            if (payload == null || payload.length != length || crc(payload) != checksum) {
+                if (complete) {
+                    throw new IOException("Corrupt frame after " + count + " records");
+                }
+                return count;
+            }
+            consumer.accept(decode(payload));
+            count++;
+        }
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        long id = in.readLong();
+        if (type == DELETE) {
+            return new Entry(type, id, null);
+        }
+        String name = in.readUTF();
+        String species = in.readUTF();
+        int age = in.readInt();
+        String ownerName = in.readBoolean() ? in.readUTF() : null;
+        long version = in.readLong();
+        return new Entry(type, id, new Pet(id, name, species, age != NO_AGE ? age : null, ownerName, version));
+    }
+
+    private static byte[] frame(PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            writer.write(new DataOutputStream(payload));
+            byte[] bytes = payload.toByteArray();
+            ByteArrayOutputStream framed = new ByteArrayOutputStream(bytes.length + 8);
+            DataOutputStream out = new DataOutputStream(framed);
+            out.writeInt(bytes.length);
+            out.writeInt(crc(bytes));
+            out.write(bytes);
+            return framed.toByteArray();
+        } catch (IOException ex) {
+            // in-memory streams do not throw
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
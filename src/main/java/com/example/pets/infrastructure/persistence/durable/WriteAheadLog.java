@@ -0,0 +1,220 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log split into segment files named after the sequence number of their first record.
+ * A single writer thread drains whatever callers queued, writes it with one gathering write and one
+ * fsync, then completes every caller's future: under load, many records share one fsync (group commit).
+ */
+@Slf4j
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long lingerNanos;
+    private final boolean fsync;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // owned by the writer thread
+    private FileChannel segment;
+    private long segmentStart;
+    private long nextSequence;
+
+    WriteAheadLog(Path directory, long firstSequence, Duration groupCommitWindow, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.lingerNanos = groupCommitWindow.toNanos();
+        this.fsync = fsync;
+        this.nextSequence = firstSequence;
+        openSegment(firstSequence);
+        this.writer = new Thread(this::run, "pet-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    static String segmentName(long firstSequence) {
+        return SEGMENT_PREFIX + "%020d".formatted(firstSequence) + SEGMENT_SUFFIX;
+    }
+
+    /**
+     * Returns the first sequence number of a segment file, or -1 when the file is not a segment.
+     */
+    static long segmentStart(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        return Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+    }
+
+    /**
+     * Queues a frame and returns a future completed with its sequence number once it is on disk.
+     */
+    CompletableFuture<Long> append(byte[] frame) {
+        return submit(new Command(Command.Kind.APPEND, frame));
+    }
+
+    /**
+     * Starts a new segment after everything queued so far. The future holds the new segment's first
+     * sequence number: replaying segments from there on top of a later snapshot is enough to recover.
+     */
+    CompletableFuture<Long> rotate() {
+        return submit(new Command(Command.Kind.ROTATE, null));
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Command close = new Command(Command.Kind.CLOSE, null);
+        queue.add(close);
+        close.done.join();
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        // appends that passed the closed check just before it flipped
+        failQueued();
+    }
+
+    private CompletableFuture<Long> submit(Command command) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-ahead log is closed"));
+        }
+        queue.add(command);
+        return command.done;
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>();
+        List<Command> appends = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                if (lingerNanos > 0) {
+                    LockSupport.parkNanos(lingerNanos);
+                }
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (Command command : batch) {
+                    if (command.kind == Command.Kind.APPEND) {
+                        appends.add(command);
+                        continue;
+                    }
+                    flush(appends);
+                    if (command.kind == Command.Kind.ROTATE) {
+                        command.done.complete(rotateSegment());
+                    } else {
+                        segment.close();
+                        command.done.complete(nextSequence);
+                        failQueued();
+                        return;
+                    }
+                }
+                flush(appends);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException ex) {
+                log.error("Write-ahead log write failed", ex);
+                for (Command command : batch) {
+                    command.done.completeExceptionally(ex);
+                }
+                appends.clear();
+                reopenAfterFailure();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Command> appends) throws IOException {
+        if (appends.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[appends.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(appends.get(i).frame);
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= segment.write(buffers);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+        for (Command command : appends) {
+            command.done.complete(nextSequence++);
+        }
+        appends.clear();
+    }
+
+    private long rotateSegment() throws IOException {
+        if (nextSequence == segmentStart) {
+            // nothing written since the last rotation, the current segment already starts here
+            return segmentStart;
+        }
+        segment.close();
+        openSegment(nextSequence);
+        return segmentStart;
+    }
+
+    // a failed write may have left a partial frame behind; later records must not follow it in the same file
+    private void reopenAfterFailure() {
+        try {
+            segment.close();
+            openSegment(nextSequence);
+        } catch (IOException ex) {
+            log.error("Could not reopen write-ahead log segment", ex);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        // an existing file with this name can only hold a torn tail that recovery already skipped
+        segment = FileChannel.open(directory.resolve(segmentName(firstSequence)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segmentStart = firstSequence;
+    }
+
+    private void failQueued() {
+        List<Command> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (Command command : rest) {
+            command.done.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+        }
+    }
+
+    private static final class Command {
+        enum Kind { APPEND, ROTATE, CLOSE }
+
+        final Kind kind;
+        final byte[] frame;
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        Command(Kind kind, byte[] frame) {
+            this.kind = kind;
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ordered index over (age, id). Every pet is its own entry rather than a member of a per-age bucket,
+ * so adds and removes are single atomic skip-list operations and there are no empty buckets to race on.
+ * Pets without an age are not indexed.
+ */
+class AgeIndex {
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    void add(Integer age, Long id) {
+        if (age != null) {
+            entries.add(new Entry(age, id));
+        }
+    }
+
+    void remove(Integer age, Long id) {
+        if (age != null) {
+            entries.remove(new Entry(age, id));
+        }
+    }
+
+    /**
+     * Returns a live view of the entries with {@code minAge <= age <= maxAge}, either bound may be null.
+     * Ascending order is youngest first, ties broken by id.
+     */
+    NavigableSet<Entry> range(Integer minAge, Integer maxAge, boolean descending) {
+        Entry from = new Entry(minAge != null ? minAge : Integer.MIN_VALUE, Long.MIN_VALUE);
+        Entry to = new Entry(maxAge != null ? maxAge : Integer.MAX_VALUE, Long.MAX_VALUE);
+        NavigableSet<Entry> range = entries.subSet(from, true, to, true);
+        return descending ? range.descendingSet() : range;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    record Entry(int age, long id) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byAge = Integer.compare(age, other.age);
+            return byAge != 0 ? byAge : Long.compare(id, other.id);
+        }
+    }
+}
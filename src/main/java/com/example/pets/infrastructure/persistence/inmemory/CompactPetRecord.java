@@ -0,0 +1,25 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+/**
+ * Compact representation of a pet: the id lives only in the map key, age is a primitive and
+ * species/owner are codes into a {@link StringDictionary}. Only the name stays a per-pet string.
+ */
+final class CompactPetRecord {
+
+    static final int NO_AGE = -1;
+    static final long NO_VERSION = 0;
+
+    final String name;
+    final int speciesCode;
+    final int ownerCode;
+    final int age;
+    final long version;
+
+    CompactPetRecord(String name, int speciesCode, int ownerCode, int age, long version) {
+        this.name = name;
+        this.speciesCode = speciesCode;
+        this.ownerCode = ownerCode;
+        this.age = age;
+        this.version = version;
+    }
+}
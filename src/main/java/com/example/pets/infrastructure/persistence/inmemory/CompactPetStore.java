@@ -0,0 +1,83 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Memory-compact layout: {@link CompactPetRecord}s keyed by primitive id in a {@link ConcurrentLongMap},
+ * with species and owner names dictionary-encoded. Pets are decoded on every read.
+ */
+class CompactPetStore implements PetStore {
+
+    private final ConcurrentLongMap<CompactPetRecord> records = new ConcurrentLongMap<>();
+    private final StringDictionary species = new StringDictionary();
+    private final StringDictionary owners = new StringDictionary();
+
+    @Override
+    public Pet get(long id) {
+        return decode(id, records.get(id));
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return records.get(id) != null;
+    }
+
+    @Override
+    public Pet compute(long id, UnaryOperator<Pet> remapping, ChangeListener listener) {
+        CompactPetRecord[] stored = new CompactPetRecord[1];
+        records.compute(id, (key, previousRecord) -> {
+            Pet previous = decode(id, previousRecord);
+            Pet current = remapping.apply(previous);
+            if (current == null) {
+                return previousRecord;
+            }
+            CompactPetRecord record = encode(current);
+            listener.onChange(id, previous, current);
+            stored[0] = record;
+            return record;
+        });
+        return decode(id, stored[0]);
+    }
+
+    @Override
+    public Pet remove(long id, ChangeListener listener) {
+        Pet[] removed = new Pet[1];
+        records.compute(id, (key, previous) -> {
+            if (previous != null) {
+                removed[0] = decode(id, previous);
+                listener.onChange(id, removed[0], null);
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public int size() {
+        return records.size();
+    }
+
+    private CompactPetRecord encode(Pet pet) {
+        return new CompactPetRecord(
+                pet.getName(),
+                species.encode(pet.getSpecies()),
+                owners.encode(pet.getOwnerName()),
+                pet.getAge() != null ? pet.getAge() : CompactPetRecord.NO_AGE,
+                pet.getVersion() != null ? pet.getVersion() : CompactPetRecord.NO_VERSION);
+    }
+
+    private Pet decode(long id, CompactPetRecord record) {
+        if (record == null) {
+            return null;
+        }
+        return new Pet(
+                id,
+                record.name,
+                species.decode(record.speciesCode),
+                record.age != CompactPetRecord.NO_AGE ? record.age : null,
+                owners.decode(record.ownerCode),
+                record.version != CompactPetRecord.NO_VERSION ? record.version : null);
+    }
+}
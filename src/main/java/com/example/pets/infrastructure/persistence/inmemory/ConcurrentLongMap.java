@@ -0,0 +1,187 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from primitive {@code long} keys to values, without boxing keys or allocating
+ * a node per entry. The key space is split over a fixed number of segments, each an open-addressing
+ * table with linear probing guarded by a {@link StampedLock}: reads are optimistic and only fall back
+ * to the read lock when they race with a write to the same segment.
+ */
+final class ConcurrentLongMap<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    ConcurrentLongMap() {
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    V get(long key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Atomically replaces the value for {@code key} with the function's result, removing the entry when
+     * it returns null. The function runs at most once, under the segment's write lock.
+     */
+    V compute(long key, Remapping<V> remapping) {
+        int hash = hash(key);
+        return segmentFor(hash).compute(key, hash, remapping);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    interface Remapping<V> {
+        V apply(long key, V current);
+    }
+
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private volatile int size;
+
+        V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        V compute(long key, int hash, Remapping<V> remapping) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int slot = slotOf(t, key, hash);
+                @SuppressWarnings("unchecked")
+                V current = (V) t.values[slot];
+                V next = remapping.apply(key, current);
+                if (next == null) {
+                    if (current != null) {
+                        delete(t, slot);
+                        size--;
+                    }
+                } else if (current != null) {
+                    t.values[slot] = next;
+                } else {
+                    if ((size + 1) * 4 > t.keys.length * 3) {
+                        t = resize(t);
+                        slot = slotOf(t, key, hash);
+                    }
+                    t.keys[slot] = key;
+                    t.values[slot] = next;
+                    size++;
+                }
+                return next;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private V find(Table t, long key, int hash) {
+            long[] keys = t.keys;
+            Object[] values = t.values;
+            int mask = keys.length - 1;
+            // bounded so a torn optimistic read can never spin; validate() rejects its result anyway
+            for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return (V) value;
+                }
+            }
+            return null;
+        }
+
+        private static int slotOf(Table t, long key, int hash) {
+            int mask = t.keys.length - 1;
+            int i = hash & mask;
+            while (t.values[i] != null && t.keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private Table resize(Table old) {
+            Table grown = new Table(old.keys.length * 2);
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.values[i] != null) {
+                    int slot = slotOf(grown, old.keys[i], hash(old.keys[i]));
+                    grown.keys[slot] = old.keys[i];
+                    grown.values[slot] = old.values[i];
+                }
+            }
+            table = grown;
+            return grown;
+        }
+
+        // backward-shift deletion keeps probe chains intact without tombstones
+        private static void delete(Table t, int slot) {
+            int mask = t.keys.length - 1;
+            int hole = slot;
+            int i = slot;
+            while (true) {
+                i = (i + 1) & mask;
+                if (t.values[i] == null) {
+                    break;
+                }
+                int home = hash(t.keys[i]) & mask;
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    t.keys[hole] = t.keys[i];
+                    t.values[hole] = t.values[i];
+                    hole = i;
+                }
+            }
+            t.keys[hole] = 0L;
+            t.values[hole] = null;
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+}
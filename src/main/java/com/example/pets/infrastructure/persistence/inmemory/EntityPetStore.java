@@ -0,0 +1,65 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Default layout: one mutable {@link PetEntity} per pet in a {@link ConcurrentHashMap}.
+ */
+class EntityPetStore implements PetStore {
+
+    private final Map<Long, PetEntity> database = new ConcurrentHashMap<>();
+    private final PetEntityMapper mapper;
+
+    EntityPetStore(PetEntityMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Pet get(long id) {
+        PetEntity entity = database.get(id);
+        return entity != null ? mapper.toDomain(entity) : null;
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return database.containsKey(id);
+    }
+
+    @Override
+    public Pet compute(long id, UnaryOperator<Pet> remapping, ChangeListener listener) {
+        PetEntity[] stored = new PetEntity[1];
+        database.compute(id, (key, previousEntity) -> {
+            Pet previous = previousEntity != null ? mapper.toDomain(previousEntity) : null;
+            Pet current = remapping.apply(previous);
+            if (current == null) {
+                return previousEntity;
+            }
+            PetEntity entity = mapper.toEntity(current);
+            entity.setId(id);
+            listener.onChange(id, previous, current);
+            stored[0] = entity;
+            return entity;
+        });
+        return stored[0] != null ? mapper.toDomain(stored[0]) : null;
+    }
+
+    @Override
+    public Pet remove(long id, ChangeListener listener) {
+        Pet[] removed = new Pet[1];
+        database.computeIfPresent(id, (key, previous) -> {
+            removed[0] = mapper.toDomain(previous);
+            listener.onChange(id, removed[0], null);
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public int size() {
+        return database.size();
+    }
+}
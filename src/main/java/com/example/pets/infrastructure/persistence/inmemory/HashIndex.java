@@ -0,0 +1,55 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Case-insensitive secondary index from an attribute value to the ids of the pets holding it.
+ * Buckets are created and dropped inside {@link ConcurrentHashMap#compute}, so an id added to a
+ * bucket that is concurrently being emptied is never lost.
+ */
+class HashIndex {
+
+    private final Map<String, NavigableSet<Long>> buckets = new ConcurrentHashMap<>();
+
+    void add(String value, Long id) {
+        if (value == null) {
+            return;
+        }
+        buckets.compute(normalize(value), (key, ids) -> {
+            NavigableSet<Long> bucket = ids != null ? ids : new ConcurrentSkipListSet<>();
+            bucket.add(id);
+            return bucket;
+        });
+    }
+
+    void remove(String value, Long id) {
+        if (value == null) {
+            return;
+        }
+        buckets.computeIfPresent(normalize(value), (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Returns a live, id-ordered view of the bucket for {@code value}, or an empty set.
+     */
+    NavigableSet<Long> get(String value) {
+        NavigableSet<Long> ids = value == null ? null : buckets.get(normalize(value));
+        return ids != null ? ids : Collections.emptyNavigableSet();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
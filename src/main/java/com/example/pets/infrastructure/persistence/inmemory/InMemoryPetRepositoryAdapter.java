@@ -1,60 +1,269 @@
 package com.example.pets.infrastructure.persistence.inmemory;
 
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
 import com.example.pets.domain.ports.PetRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Repository
 @Primary
 @Profile("inmemory")
-public class InMemoryPetRepositoryAdapter implements PetRepository {
+public class InMemoryPetRepositoryAdapter implements PetRepository, MeterBinder {
 
-    private final Map<Long, PetEntity> database = new ConcurrentHashMap<>();
+    private final PetStore store;
+    // ids in ascending order, maintained under the store's per-id lock so it never disagrees with the store for long
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+    private final HashIndex speciesIndex = new HashIndex();
+    private final HashIndex ownerIndex = new HashIndex();
+    private final AgeIndex ageIndex = new AgeIndex();
+    private final TextIndex nameSearchIndex = new TextIndex();
+    private final TextIndex ownerSearchIndex = new TextIndex();
+    private final PetAggregates aggregates = new PetAggregates();
     private final AtomicLong idGenerator = new AtomicLong(0);
-    private final PetEntityMapper mapper;
+    // bumped only after a write is visible, so a read that follows a read of the counter is never older than it
+    private final AtomicLong modifications = new AtomicLong();
 
     public InMemoryPetRepositoryAdapter(PetEntityMapper mapper) {
-        this.mapper = mapper;
+        this(mapper, new InMemoryStorageProperties(InMemoryStorageProperties.Layout.ENTITY));
+    }
+
+    @Autowired
+    public InMemoryPetRepositoryAdapter(PetEntityMapper mapper, InMemoryStorageProperties properties) {
+        this.store = switch (properties.layout()) {
+            case ENTITY -> new EntityPetStore(mapper);
+            case COMPACT -> new CompactPetStore();
+            case SNAPSHOT -> new SnapshotPetStore();
+        };
     }
 
     @Override
     public Pet save(Pet pet) {
-        Long id = Optional.ofNullable(pet.getId()).orElseGet(idGenerator::incrementAndGet);
-        PetEntity entity = mapper.toEntity(pet);
-        entity.setId(id);
-        database.put(id, entity);
-        return mapper.toDomain(entity);
+        Long id = pet.getId();
+        if (id == null) {
+            id = idGenerator.incrementAndGet();
+        } else {
+            // explicit ids (replays, imports) must never be handed out again
+            idGenerator.accumulateAndGet(id, Math::max);
+        }
+        Pet saved = store.compute(id, previous -> pet.withVersion(nextVersion(previous)), this::onChange);
+        modifications.incrementAndGet();
+        return saved;
+    }
+
+    @Override
+    public Pet restore(Pet pet) {
+        idGenerator.accumulateAndGet(pet.getId(), Math::max);
+        Pet restored = store.compute(pet.getId(), previous -> pet, this::onChange);
+        modifications.incrementAndGet();
+        return restored;
+    }
+
+    @Override
+    public List<Pet> saveAll(List<Pet> pets) {
+        long newPets = pets.stream().filter(pet -> pet.getId() == null).count();
+        long maxExplicitId = pets.stream().map(Pet::getId).filter(Objects::nonNull).mapToLong(Long::longValue)
+                .max().orElse(0);
+        // one atomic update moves past the batch's explicit ids and then reserves ids for its new pets, so a new
+        // pet can never be given an id that an explicit one in the same batch is about to take
+        long nextId = idGenerator.accumulateAndGet(maxExplicitId, (current, max) -> Math.max(current, max) + newPets)
+                - newPets + 1;
+        List<Pet> saved = new ArrayList<>(pets.size());
+        for (Pet pet : pets) {
+            long id = pet.getId() != null ? pet.getId() : nextId++;
+            saved.add(store.compute(id, previous -> pet.withVersion(nextVersion(previous)), this::onChange));
+        }
+        modifications.incrementAndGet();
+        return saved;
+    }
+
+    @Override
+    public Optional<Pet> update(Long id, UnaryOperator<Pet> updater) {
+        Pet updated = store.compute(id,
+                previous -> previous != null ? updater.apply(previous).withVersion(nextVersion(previous)) : null,
+                this::onChange);
+        if (updated != null) {
+            modifications.incrementAndGet();
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public Map<Long, Pet> updateAll(Map<Long, UnaryOperator<Pet>> updaters) {
+        Map<Long, Pet> updated = new HashMap<>();
+        updaters.forEach((id, updater) -> update(id, updater).ifPresent(pet -> updated.put(id, pet)));
+        return updated;
     }
 
     @Override
     public Optional<Pet> findById(Long id) {
-        return Optional.ofNullable(database.get(id)).map(mapper::toDomain);
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public List<Pet> findAllById(Collection<Long> ids) {
+        return load(ids.iterator(), Integer.MAX_VALUE);
     }
 
     @Override
     public List<Pet> findAll() {
-        return database.values().stream()
-                .map(mapper::toDomain)
-                .toList();
+        return load(orderedIds.iterator(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Pet> findPage(Long afterId, int limit) {
+        NavigableSet<Long> tail = afterId == null ? orderedIds : orderedIds.tailSet(afterId, false);
+        return load(tail.iterator(), limit);
+    }
+
+    @Override
+    public Stream<Pet> streamAll() {
+        return orderedIds.stream()
+                .map(store::get)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<Pet> findBySpecies(String species) {
+        return load(speciesIndex.get(species).iterator(), Integer.MAX_VALUE);
     }
 
     @Override
-    public void deleteById(Long id) {
-        database.remove(id);
+    public List<Pet> findByOwner(String ownerName) {
+        return load(ownerIndex.get(ownerName).iterator(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit) {
+        Iterator<Long> ids = ageIndex.range(minAge, maxAge, descending).stream()
+                .map(AgeIndex.Entry::id)
+                .iterator();
+        return load(ids, limit);
+    }
+
+    /**
+     * Ranks pets by where the query matches: a name word starting with it, then an owner word starting with it, then
+     * a name word and an owner word within one edit of it. Prefix matches never look at more than {@code limit} ids.
+     */
+    @Override
+    public List<Pet> searchByName(String query, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        nameSearchIndex.collectPrefixMatches(query, ids, limit);
+        ownerSearchIndex.collectPrefixMatches(query, ids, limit);
+        nameSearchIndex.collectFuzzyMatches(query, ids, limit);
+        ownerSearchIndex.collectFuzzyMatches(query, ids, limit);
+        return load(ids.iterator(), limit);
+    }
+
+    @Override
+    public PetStatistics statistics() {
+        return aggregates.snapshot();
+    }
+
+    @Override
+    public Optional<Pet> deleteById(Long id) {
+        Pet deleted = store.remove(id, this::onChange);
+        if (deleted != null) {
+            modifications.incrementAndGet();
+        }
+        return Optional.ofNullable(deleted);
+    }
+
+    @Override
+    public List<Pet> deleteAllById(Collection<Long> ids) {
+        List<Pet> deleted = new ArrayList<>();
+        for (Long id : ids) {
+            Pet removed = store.remove(id, this::onChange);
+            if (removed != null) {
+                deleted.add(removed);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            modifications.incrementAndGet();
+        }
+        return deleted;
     }
 
     @Override
     public boolean existsById(Long id) {
-        return database.containsKey(id);
+        return store.contains(id);
+    }
+
+    @Override
+    public long modificationCount() {
+        return modifications.get();
     }
-}
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("pets.repository.size", store, PetStore::size)
+                .description("Pets held by the in-memory repository")
+                .register(registry);
+        // the ordered id and age sets are left out: their size() walks the whole set
+        Gauge.builder("pets.index.keys", speciesIndex, HashIndex::size)
+                .description("Distinct keys in an in-memory secondary index")
+                .tag("index", "species")
+                .register(registry);
+        Gauge.builder("pets.index.keys", ownerIndex, HashIndex::size)
+                .description("Distinct keys in an in-memory secondary index")
+                .tag("index", "owner")
+                .register(registry);
+        Gauge.builder("pets.index.keys", nameSearchIndex, TextIndex::size)
+                .description("Distinct keys in an in-memory secondary index")
+                .tag("index", "name-search")
+                .register(registry);
+        Gauge.builder("pets.index.keys", ownerSearchIndex, TextIndex::size)
+                .description("Distinct keys in an in-memory secondary index")
+                .tag("index", "owner-search")
+                .register(registry);
+    }
 
+    private List<Pet> load(Iterator<Long> ids, int limit) {
+        List<Pet> pets = new ArrayList<>(Math.min(limit, 256));
+        while (pets.size() < limit && ids.hasNext()) {
+            // an id can be visible in an index a moment before or after its pet, so skip the gap instead of failing
+            Pet pet = store.get(ids.next());
+            if (pet != null) {
+                pets.add(pet);
+            }
+        }
+        return pets;
+    }
 
+    private static long nextVersion(Pet previous) {
+        return previous != null && previous.getVersion() != null ? previous.getVersion() + 1 : 1;
+    }
 
+    // always called under the store's lock for this id, so index updates for one pet never interleave
+    private void onChange(long id, Pet previous, Pet current) {
+        aggregates.onChange(previous, current);
+        if (previous != null) {
+            speciesIndex.remove(previous.getSpecies(), id);
+            ownerIndex.remove(previous.getOwnerName(), id);
+            ageIndex.remove(previous.getAge(), id);
+            nameSearchIndex.remove(previous.getName(), id);
+            ownerSearchIndex.remove(previous.getOwnerName(), id);
+        }
+        if (current != null) {
+            orderedIds.add(id);
+            speciesIndex.add(current.getSpecies(), id);
+            ownerIndex.add(current.getOwnerName(), id);
+            ageIndex.add(current.getAge(), id);
+            nameSearchIndex.add(current.getName(), id);
+            ownerSearchIndex.add(current.getOwnerName(), id);
+        } else {
+            orderedIds.remove(id);
+        }
+    }
+}
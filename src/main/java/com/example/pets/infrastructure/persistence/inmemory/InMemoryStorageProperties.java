@@ -0,0 +1,17 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "pets.inmemory")
+public record InMemoryStorageProperties(@DefaultValue("entity") Layout layout) {
+
+    public enum Layout {
+        /** One {@link PetEntity} per pet in a ConcurrentHashMap. */
+        ENTITY,
+        /** Dictionary-encoded records in a primitive long map, see {@link CompactPetStore}. */
+        COMPACT,
+        /** The immutable {@link com.example.pets.domain.model.Pet}s themselves, returned without copying, see {@link SnapshotPetStore}. */
+        SNAPSHOT
+    }
+}
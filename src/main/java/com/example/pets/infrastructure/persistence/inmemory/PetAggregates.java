@@ -0,0 +1,80 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts per species, age and owner, moved from the old to the new pet on every change so that reading them never
+ * looks at the pets themselves. A snapshot costs one copy per distinct species, age and per-owner count.
+ * <p>
+ * Counters are updated one by one, so a snapshot taken during a write may see it half applied; each count is exact
+ * once writes settle.
+ */
+class PetAggregates {
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder withoutAge = new LongAdder();
+    private final LongAdder withoutOwner = new LongAdder();
+    private final Map<String, Long> bySpecies = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> byAge = new ConcurrentHashMap<>();
+    private final Map<String, Long> petsByOwner = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> ownersByPetCount = new ConcurrentHashMap<>();
+
+    void onChange(Pet previous, Pet current) {
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (current != null) {
+            count(current, 1);
+        }
+    }
+
+    PetStatistics snapshot() {
+        return new PetStatistics(
+                total.sum(),
+                new TreeMap<>(bySpecies),
+                new TreeMap<>(byAge),
+                withoutAge.sum(),
+                new TreeMap<>(ownersByPetCount),
+                withoutOwner.sum());
+    }
+
+    private void count(Pet pet, long delta) {
+        total.add(delta);
+        if (pet.getSpecies() != null) {
+            add(bySpecies, pet.getSpecies().toLowerCase(Locale.ROOT), delta);
+        }
+        if (pet.getAge() == null) {
+            withoutAge.add(delta);
+        } else {
+            add(byAge, pet.getAge(), delta);
+        }
+        if (pet.getOwnerName() == null) {
+            withoutOwner.add(delta);
+            return;
+        }
+        // the owner's entry is locked while its bucket in the distribution moves, so two pets of one owner
+        // changing at once cannot both move it from the same bucket
+        petsByOwner.compute(pet.getOwnerName().toLowerCase(Locale.ROOT), (owner, pets) -> {
+            long before = pets != null ? pets : 0;
+            long after = before + delta;
+            if (before > 0) {
+                add(ownersByPetCount, (int) before, -1);
+            }
+            if (after > 0) {
+                add(ownersByPetCount, (int) after, 1);
+            }
+            return after > 0 ? after : null;
+        });
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
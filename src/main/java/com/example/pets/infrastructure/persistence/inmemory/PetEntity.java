@@ -14,5 +14,6 @@ public class PetEntity {
     private String species;
     private Integer age;
     private String ownerName;
+    private Long version;
 }
 
@@ -0,0 +1,40 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Primary id-keyed storage behind {@link InMemoryPetRepositoryAdapter}. Implementations decide the
+ * in-memory layout of a pet; the adapter owns ids and secondary indexes.
+ */
+interface PetStore {
+
+    Pet get(long id);
+
+    boolean contains(long id);
+
+    /**
+     * Atomically replaces the pet under {@code id} with the remapping's result and returns the stored pet.
+     * The remapping gets the current pet, or null, and returns null to leave the entry as it is (then this
+     * returns null too). The remapping and the listener run while the entry is locked, so changes to one id
+     * are applied and reported in order; an exception from the remapping leaves the entry untouched.
+     */
+    Pet compute(long id, UnaryOperator<Pet> remapping, ChangeListener listener);
+
+    /**
+     * Removes the pet under {@code id}, reporting it to the listener while the entry is locked.
+     * Returns the removed pet, or null if there was none.
+     */
+    Pet remove(long id, ChangeListener listener);
+
+    int size();
+
+    @FunctionalInterface
+    interface ChangeListener {
+        /**
+         * {@code previous} is null for an insert and {@code current} is null for a removal.
+         */
+        void onChange(long id, Pet previous, Pet current);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-optimized layout: the immutable {@link Pet}s themselves, keyed by primitive id in a {@link ConcurrentLongMap}.
+ * A write stores the pet it was given (with its id filled in) and every read hands out that same instance, so reads
+ * allocate nothing per pet and only writes create objects.
+ */
+class SnapshotPetStore implements PetStore {
+
+    private final ConcurrentLongMap<Pet> pets = new ConcurrentLongMap<>();
+
+    @Override
+    public Pet get(long id) {
+        return pets.get(id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return pets.get(id) != null;
+    }
+
+    @Override
+    public Pet compute(long id, UnaryOperator<Pet> remapping, ChangeListener listener) {
+        Pet[] stored = new Pet[1];
+        pets.compute(id, (key, previous) -> {
+            Pet current = remapping.apply(previous);
+            if (current == null) {
+                return previous;
+            }
+            Pet snapshot = current.getId() != null && current.getId() == id ? current : current.withId(id);
+            listener.onChange(id, previous, snapshot);
+            stored[0] = snapshot;
+            return snapshot;
+        });
+        return stored[0];
+    }
+
+    @Override
+    public Pet remove(long id, ChangeListener listener) {
+        Pet[] removed = new Pet[1];
+        pets.compute(id, (key, previous) -> {
+            if (previous != null) {
+                listener.onChange(id, previous, null);
+                removed[0] = previous;
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public int size() {
+        return pets.size();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Case-insensitive word index for prefix and fuzzy search. Every word of a value is a term, and so is the whole
+ * value when it has more than one word. The terms are kept sorted, so a prefix query is a range scan that stops as
+ * soon as it has enough ids, however many pets there are.
+ * <p>
+ * Fuzzy lookups use a deletion index: each term is also filed under every variant with one character removed.
+ * The terms within one edit of a query then share a key with the query or one of its own deletions, so they are
+ * found with a few hash lookups instead of a scan over every term.
+ * <p>
+ * Postings are created and dropped inside {@link ConcurrentHashMap#compute}, which is also where the sorted term set
+ * is kept in step with them. Terms that share a deletion variant have different postings locks, so the deletion
+ * index is updated inside a {@code compute} of its own: adding a term to an owner set can then never race with
+ * another term's removal dropping that set as empty.
+ */
+class TextIndex {
+
+    static final int MIN_FUZZY_LENGTH = 3;
+    // longer terms (whole multi-word names) are only found by prefix; their deletions would cost more than they help
+    private static final int MAX_FUZZY_LENGTH = 24;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+    private final NavigableSet<String> sortedTerms = new ConcurrentSkipListSet<>();
+    private final Map<String, Set<String>> deletions = new ConcurrentHashMap<>();
+
+    void add(String value, long id) {
+        for (String term : terms(value)) {
+            postings.compute(term, (key, ids) -> {
+                NavigableSet<Long> bucket = ids;
+                if (bucket == null) {
+                    bucket = new ConcurrentSkipListSet<>();
+                    sortedTerms.add(term);
+                    forEachDeletion(term, deletion -> deletions.compute(deletion, (d, owners) -> {
+                        Set<String> terms = owners != null ? owners : ConcurrentHashMap.newKeySet();
+                        terms.add(term);
+                        return terms;
+                    }));
+                }
+                bucket.add(id);
+                return bucket;
+            });
+        }
+    }
+
+    void remove(String value, long id) {
+        for (String term : terms(value)) {
+            postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(id);
+                if (!ids.isEmpty()) {
+                    return ids;
+                }
+                sortedTerms.remove(term);
+                forEachDeletion(term, deletion -> deletions.computeIfPresent(deletion, (d, owners) -> {
+                    owners.remove(term);
+                    return owners.isEmpty() ? null : owners;
+                }));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Adds the ids of pets with a term starting with {@code query} to {@code into} until it holds {@code limit} ids.
+     * Terms are visited in order, so an exact match comes before longer terms.
+     */
+    void collectPrefixMatches(String query, Set<Long> into, int limit) {
+        String prefix = normalize(query);
+        for (String term : sortedTerms.tailSet(prefix, true)) {
+            if (into.size() >= limit || !term.startsWith(prefix)) {
+                return;
+            }
+            collect(term, into, limit);
+        }
+    }
+
+    /**
+     * Adds the ids of pets with a term one insertion, deletion, substitution or transposition away from
+     * {@code query} to {@code into} until it holds {@code limit} ids.
+     */
+    void collectFuzzyMatches(String query, Set<Long> into, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < MIN_FUZZY_LENGTH || normalized.length() > MAX_FUZZY_LENGTH) {
+            return;
+        }
+        // sorted so that ties are broken the same way as for prefix matches
+        Set<String> candidates = new TreeSet<>(deletions.getOrDefault(normalized, Set.of()));
+        forEachDeletion(normalized, deletion -> {
+            // the query with a character removed is itself a term (the query has an extra character) ...
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            // ... or shares a deletion with one (substitution or transposition)
+            candidates.addAll(deletions.getOrDefault(deletion, Set.of()));
+        });
+        for (String term : candidates) {
+            if (into.size() >= limit) {
+                return;
+            }
+            if (!term.equals(normalized) && withinOneEdit(normalized, term)) {
+                collect(term, into, limit);
+            }
+        }
+    }
+
+    int size() {
+        return postings.size();
+    }
+
+    private void collect(String term, Set<Long> into, int limit) {
+        for (Long id : postings.getOrDefault(term, Collections.emptyNavigableSet())) {
+            if (into.size() >= limit) {
+                return;
+            }
+            into.add(id);
+        }
+    }
+
+    static String normalize(String value) {
+        return WORD_SEPARATOR.matcher(value.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Collection<String> terms(String value) {
+        if (value == null) {
+            return Set.of();
+        }
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> terms = new HashSet<>(Set.of(normalized.split(" ")));
+        terms.add(normalized);
+        return terms;
+    }
+
+    private static void forEachDeletion(String term, Consumer<String> action) {
+        if (term.length() < MIN_FUZZY_LENGTH || term.length() > MAX_FUZZY_LENGTH + 1) {
+            return;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            action.accept(term.substring(0, i) + term.substring(i + 1));
+        }
+    }
+
+    // optimal string alignment distance <= 1, checked in one pass
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (lengthDifference > 0) {
+            return a.startsWith(b.substring(i), i + 1);
+        }
+        if (lengthDifference < 0) {
+            return b.startsWith(a.substring(i), i + 1);
+        }
+        if (i >= a.length() - 1) {
+            return true;
+        }
+        if (a.startsWith(b.substring(i + 1), i + 1)) {
+            return true;
+        }
+        return a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i) && a.startsWith(b.substring(i + 2), i + 2);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.pets.infrastructure.persistence.jpa;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Primary
+@Profile("jpa")
+@Transactional(readOnly = true)
+public class JpaPetRepositoryAdapter implements PetRepository {
+
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private final SpringDataPetRepository repository;
+    private final PetJpaEntityMapper mapper;
+    private final EntityManager entityManager;
+    // only sees writes made through this instance; other writers to the database go unnoticed
+    private final AtomicLong modifications = new AtomicLong();
+
+    public JpaPetRepositoryAdapter(SpringDataPetRepository repository, PetJpaEntityMapper mapper,
+                                   EntityManager entityManager) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Pet save(Pet pet) {
+        return saveAll(List.of(pet)).get(0);
+    }
+
+    /**
+     * Replaces the row when it exists. Otherwise inserts it under the pet's id and draws ids from the entity's own
+     * generator until they pass it, so that pets created later never get an id that was restored. Going through the
+     * generator works on every database Hibernate supports and also uses up the ids its optimizer already holds; it
+     * costs a sequence call per {@link PetJpaEntity#ID_ALLOCATION_SIZE} ids skipped, so restored ids should stay
+     * close to the ones already handed out, as they do for replay and import.
+     */
+    @Override
+    @Transactional
+    public Pet restore(Pet pet) {
+        if (pet.getId() == null || repository.existsById(pet.getId())) {
+            return write(List.of(pet), true).get(0);
+        }
+        repository.insertWithId(pet.getId(), pet.getName(), pet.getSpecies(), pet.getAge(), pet.getOwnerName(),
+                pet.getVersion());
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(PetJpaEntity.class).getGenerator();
+        long generated;
+        do {
+            generated = ((Number) generator.generate(session, null)).longValue();
+        } while (generated < pet.getId());
+        countModificationAfterCommit();
+        return pet;
+    }
+
+    @Override
+    @Transactional
+    public List<Pet> saveAll(List<Pet> pets) {
+        return write(pets, false);
+    }
+
+    private List<Pet> write(List<Pet> pets, boolean keepVersions) {
+        // load every existing row in one IN query, then let dirty checking and JDBC batching do the updates
+        Set<Long> ids = pets.stream()
+                .map(Pet::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, PetJpaEntity> existing = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(PetJpaEntity::getId, Function.identity()));
+
+        List<PetJpaEntity> entities = new ArrayList<>(pets.size());
+        for (Pet pet : pets) {
+            PetJpaEntity entity = pet.getId() != null ? existing.get(pet.getId()) : null;
+            long version;
+            if (entity != null) {
+                version = nextVersion(entity);
+                mapper.updateEntity(entity, pet);
+            } else {
+                if (pet.getId() != null) {
+                    // the sequence would hand the same id out again later
+                    throw new IllegalArgumentException("No pet with id " + pet.getId()
+                            + " to replace; new pets get their id from the database sequence");
+                }
+                entity = mapper.toEntity(pet);
+                version = 1;
+            }
+            entity.setVersion(keepVersions ? pet.getVersion() : version);
+            entities.add(entity);
+        }
+        List<Pet> saved = repository.saveAll(entities).stream()
+                .map(mapper::toDomain)
+                .toList();
+        countModificationAfterCommit();
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Optional<Pet> update(Long id, UnaryOperator<Pet> updater) {
+        return Optional.ofNullable(updateAll(Map.of(id, updater)).get(id));
+    }
+
+    /**
+     * Locks every affected row with one SELECT ... FOR UPDATE, so concurrent updates of a pet queue up instead of
+     * overwriting each other, then lets dirty checking and JDBC batching write the changes.
+     */
+    @Override
+    @Transactional
+    public Map<Long, Pet> updateAll(Map<Long, UnaryOperator<Pet>> updaters) {
+        Map<Long, Pet> updated = new HashMap<>();
+        for (PetJpaEntity entity : repository.findAllByIdForUpdate(updaters.keySet())) {
+            Pet pet = updaters.get(entity.getId()).apply(mapper.toDomain(entity));
+            mapper.updateEntity(entity, pet);
+            entity.setVersion(nextVersion(entity));
+            updated.put(entity.getId(), mapper.toDomain(entity));
+        }
+        if (!updated.isEmpty()) {
+            countModificationAfterCommit();
+        }
+        return updated;
+    }
+
+    @Override
+    public Optional<Pet> findById(Long id) {
+        return repository.findById(id).map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Pet> findAllById(Collection<Long> ids) {
+        return toDomain(repository.findAllById(ids));
+    }
+
+    @Override
+    public List<Pet> findAll() {
+        return toDomain(repository.findAll(Sort.by("id")));
+    }
+
+    @Override
+    public List<Pet> findPage(Long afterId, int limit) {
+        return toDomain(repository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : Long.MIN_VALUE, Limit.of(limit)));
+    }
+
+    /**
+     * Walks the table in keyset chunks. Only the first chunk is read in this method's transaction; the others are read
+     * as the stream is consumed, by self-invocation and so without a transaction of their own. Unless the caller holds
+     * one open, each chunk query gets a connection and persistence context that are released when it returns, so the
+     * stream can be consumed at any pace without holding either.
+     */
+    @Override
+    public Stream<Pet> streamAll() {
+        return Stream.iterate(findPage(null, STREAM_CHUNK_SIZE),
+                        chunk -> !chunk.isEmpty(),
+                        chunk -> chunk.size() < STREAM_CHUNK_SIZE
+                                ? List.of()
+                                : findPage(chunk.get(chunk.size() - 1).getId(), STREAM_CHUNK_SIZE))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public List<Pet> findBySpecies(String species) {
+        return toDomain(repository.findBySpeciesIgnoreCaseOrderByIdAsc(species));
+    }
+
+    @Override
+    public List<Pet> findByOwner(String ownerName) {
+        return toDomain(repository.findByOwnerNameIgnoreCaseOrderByIdAsc(ownerName));
+    }
+
+    @Override
+    public List<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return toDomain(repository.findByAgeRange(
+                minAge != null ? minAge : 0,
+                maxAge != null ? maxAge : Integer.MAX_VALUE,
+                Sort.by(direction, "age", "id"),
+                Limit.of(limit)));
+    }
+
+    /**
+     * Name matches first, then owner matches to fill the limit. Without a text index only the start of the name is
+     * matched and typos are not tolerated; the LIKE prefix queries can use an index on the lower-cased columns.
+     */
+    @Override
+    public List<Pet> searchByName(String query, int limit) {
+        Map<Long, PetJpaEntity> found = new LinkedHashMap<>();
+        repository.findByNameStartingWithIgnoreCase(query, Sort.by("name", "id"), Limit.of(limit))
+                .forEach(entity -> found.put(entity.getId(), entity));
+        if (found.size() < limit) {
+            repository.findByOwnerNameStartingWithIgnoreCase(query, Sort.by("ownerName", "id"), Limit.of(limit))
+                    .forEach(entity -> {
+                        if (found.size() < limit) {
+                            found.putIfAbsent(entity.getId(), entity);
+                        }
+                    });
+        }
+        return toDomain(List.copyOf(found.values()));
+    }
+
+    /**
+     * Computed with GROUP BY queries on every call; the database has no aggregates kept up to date on write.
+     */
+    @Override
+    public PetStatistics statistics() {
+        Map<String, Long> bySpecies = new TreeMap<>();
+        repository.countBySpecies().forEach(row -> bySpecies.put((String) row[0], (Long) row[1]));
+        Map<Integer, Long> byAge = new TreeMap<>();
+        long withoutAge = 0;
+        for (Object[] row : repository.countByAge()) {
+            if (row[0] == null) {
+                withoutAge = (Long) row[1];
+            } else {
+                byAge.put((Integer) row[0], (Long) row[1]);
+            }
+        }
+        Map<Integer, Long> ownersByPetCount = new TreeMap<>();
+        long withOwner = 0;
+        for (Object[] row : repository.countOwnersByPetCount()) {
+            int pets = ((Long) row[0]).intValue();
+            long owners = (Long) row[1];
+            ownersByPetCount.put(pets, owners);
+            withOwner += pets * owners;
+        }
+        long total = bySpecies.values().stream().mapToLong(Long::longValue).sum();
+        return new PetStatistics(total, bySpecies, byAge, withoutAge, ownersByPetCount, total - withOwner);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Pet> deleteById(Long id) {
+        return deleteAllById(List.of(id)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<Pet> deleteAllById(Collection<Long> ids) {
+        // the row locks keep the returned versions those of the deleted rows
+        List<PetJpaEntity> existing = repository.findAllByIdForUpdate(ids);
+        if (existing.isEmpty()) {
+            return List.of();
+        }
+        List<Pet> deleted = existing.stream().map(mapper::toDomain).toList();
+        // one DELETE ... WHERE id IN (...) instead of removing entities one by one
+        repository.deleteAllByIdInBatch(deleted.stream().map(Pet::getId).toList());
+        countModificationAfterCommit();
+        return deleted;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    public long modificationCount() {
+        return modifications.get();
+    }
+
+    // counting before the commit would let a reader pair the new count with the old rows
+    private void countModificationAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            modifications.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                modifications.incrementAndGet();
+            }
+        });
+    }
+
+    // rows written before versions existed count as version 0
+    private static long nextVersion(PetJpaEntity entity) {
+        return entity.getVersion() != null ? entity.getVersion() + 1 : 1;
+    }
+
+    private List<Pet> toDomain(List<PetJpaEntity> entities) {
+        return entities.stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.pets.infrastructure.persistence.jpa;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "pets", indexes = {
+        @Index(name = "idx_pets_species", columnList = "species"),
+        @Index(name = "idx_pets_owner_name", columnList = "owner_name"),
+        @Index(name = "idx_pets_age", columnList = "age")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PetJpaEntity {
+
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled sequence instead of IDENTITY: IDENTITY forces an immediate insert per entity and disables JDBC batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pet_id_seq")
+    @SequenceGenerator(name = "pet_id_seq", sequenceName = "pet_id_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String species;
+
+    private Integer age;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    // maintained by JpaPetRepositoryAdapter with the same rules as the other adapters, not a JPA @Version
+    private Long version;
+}
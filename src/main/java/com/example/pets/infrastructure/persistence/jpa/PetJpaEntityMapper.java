@@ -0,0 +1,18 @@
+package com.example.pets.infrastructure.persistence.jpa;
+
+import com.example.pets.domain.model.Pet;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(componentModel = "spring")
+public interface PetJpaEntityMapper {
+
+    PetJpaEntity toEntity(Pet pet);
+
+    Pet toDomain(PetJpaEntity entity);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(@MappingTarget PetJpaEntity entity, Pet pet);
+}
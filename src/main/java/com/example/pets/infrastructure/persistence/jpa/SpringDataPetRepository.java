@@ -0,0 +1,49 @@
+package com.example.pets.infrastructure.persistence.jpa;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SpringDataPetRepository extends JpaRepository<PetJpaEntity, Long> {
+
+    List<PetJpaEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<PetJpaEntity> findBySpeciesIgnoreCaseOrderByIdAsc(String species);
+
+    List<PetJpaEntity> findByOwnerNameIgnoreCaseOrderByIdAsc(String ownerName);
+
+    List<PetJpaEntity> findByNameStartingWithIgnoreCase(String prefix, Sort sort, Limit limit);
+
+    List<PetJpaEntity> findByOwnerNameStartingWithIgnoreCase(String prefix, Sort sort, Limit limit);
+
+    // ordered by id so that overlapping batches take their row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PetJpaEntity p where p.id in :ids order by p.id")
+    List<PetJpaEntity> findAllByIdForUpdate(Collection<Long> ids);
+
+    @Query("select lower(p.species), count(p) from PetJpaEntity p group by lower(p.species)")
+    List<Object[]> countBySpecies();
+
+    @Query("select p.age, count(p) from PetJpaEntity p group by p.age")
+    List<Object[]> countByAge();
+
+    @Query("select o.pets, count(*) from (select count(p) as pets from PetJpaEntity p where p.ownerName is not null "
+            + "group by lower(p.ownerName)) o group by o.pets")
+    List<Object[]> countOwnersByPetCount();
+
+    @Query("select p from PetJpaEntity p where p.age is not null and p.age between :minAge and :maxAge")
+    List<PetJpaEntity> findByAgeRange(int minAge, int maxAge, Sort sort, Limit limit);
+
+    // inserts under the given id, which persist() refuses for an entity whose id comes from the sequence
+    @Modifying
+    @Query(value = "insert into pets (id, name, species, age, owner_name, version) "
+            + "values (:id, :name, :species, :age, :ownerName, :version)", nativeQuery = true)
+    void insertWithId(Long id, String name, String species, Integer age, String ownerName, Long version);
+}
@@ -0,0 +1,165 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.application.port.in.PetUseCase;
+import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.infrastructure.web.dto.BatchItemResult;
+import com.example.pets.infrastructure.web.dto.BatchResponse;
+import com.example.pets.infrastructure.web.dto.PetBatchUpdateRequest;
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bulk variants of the pet endpoints. Items are validated one by one and the valid ones are handed to the
+ * use case as a single batch; every item gets its own status in the response, so one bad item does not
+ * fail the others.
+ */
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class PetBatchController {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final PetUseCase petUseCase;
+    private final PetMapper petMapper;
+    private final Validator validator;
+
+    @Operation(summary = "Create pets in bulk", description = "Creates up to 1000 pets and returns one result per item")
+    @PostMapping("/pets:batch")
+    public ResponseEntity<BatchResponse> createPets(@RequestBody List<PetCreateRequest> requests) {
+        checkSize(requests);
+        log.debug("Creating {} pets in a batch", requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Pet> pets = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < results.length; i++) {
+            Pet pet = toDomain(requests.get(i), petMapper::toDomain, i, null, results);
+            if (pet != null) {
+                pets.add(pet);
+                indexes.add(i);
+            }
+        }
+
+        List<Pet> created = petUseCase.createPets(pets);
+        for (int i = 0; i < created.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = success(index, HttpStatus.CREATED, created.get(i));
+        }
+        return ResponseEntity.ok(toResponse(results));
+    }
+
+    @Operation(summary = "Update pets in bulk", description = "Applies up to 1000 partial updates, each naming its pet by ID, "
+            + "and returns one result per item")
+    @PatchMapping("/pets:batch")
+    public ResponseEntity<BatchResponse> updatePets(@RequestBody List<PetBatchUpdateRequest> requests) {
+        checkSize(requests);
+        log.debug("Updating {} pets in a batch", requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Long, Pet> updates = new HashMap<>();
+        Map<Long, Integer> indexById = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            PetBatchUpdateRequest request = requests.get(i);
+            Long id = request == null ? null : request.id();
+            Pet pet = toDomain(request, petMapper::toDomain, i, id, results);
+            if (pet == null) {
+                continue;
+            }
+            if (indexById.putIfAbsent(id, i) != null) {
+                results[i] = failure(i, id, HttpStatus.BAD_REQUEST, List.of("Duplicate id in batch: " + id));
+                continue;
+            }
+            updates.put(id, pet);
+        }
+
+        Map<Long, Pet> updated = petUseCase.updatePets(updates);
+        indexById.forEach((id, index) -> {
+            Pet pet = updated.get(id);
+            results[index] = pet != null
+                    ? success(index, HttpStatus.OK, pet)
+                    : failure(index, id, HttpStatus.NOT_FOUND, List.of(new PetNotFoundException(id).getMessage()));
+        });
+        return ResponseEntity.ok(toResponse(results));
+    }
+
+    @Operation(summary = "Delete pets in bulk", description = "Deletes up to 1000 pets by ID and returns one result per ID")
+    @DeleteMapping("/pets:batch")
+    public ResponseEntity<BatchResponse> deletePets(@RequestBody List<Long> ids) {
+        checkSize(ids);
+        log.debug("Deleting {} pets in a batch", ids.size());
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        Map<Long, Integer> indexById = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, List.of("id: must not be null"));
+            } else if (indexById.putIfAbsent(id, i) != null) {
+                results[i] = failure(i, id, HttpStatus.BAD_REQUEST, List.of("Duplicate id in batch: " + id));
+            }
+        }
+
+        Set<Long> deleted = petUseCase.deletePets(indexById.keySet());
+        indexById.forEach((id, index) -> results[index] = deleted.contains(id)
+                ? new BatchItemResult(index, id, HttpStatus.NO_CONTENT.value(), null, null)
+                : failure(index, id, HttpStatus.NOT_FOUND, List.of(new PetNotFoundException(id).getMessage())));
+        return ResponseEntity.ok(toResponse(results));
+    }
+
+    // returns the mapped pet, or records why the item was rejected and returns null
+    private <T> Pet toDomain(T request, Function<T, Pet> mapper, int index, Long id, BatchItemResult[] results) {
+        if (request == null) {
+            results[index] = failure(index, null, HttpStatus.BAD_REQUEST, List.of("Item must not be null"));
+            return null;
+        }
+        List<String> errors = validator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
+        if (errors.isEmpty()) {
+            try {
+                return mapper.apply(request);
+            } catch (IllegalArgumentException ex) {
+                errors = List.of(ex.getMessage());
+            }
+        }
+        results[index] = failure(index, id, HttpStatus.BAD_REQUEST, errors);
+        return null;
+    }
+
+    private BatchItemResult success(int index, HttpStatus status, Pet pet) {
+        return new BatchItemResult(index, pet.getId(), status.value(), petMapper.toResponse(pet), null);
+    }
+
+    private static BatchItemResult failure(int index, Long id, HttpStatus status, List<String> errors) {
+        return new BatchItemResult(index, id, status.value(), null, errors);
+    }
+
+    private static BatchResponse toResponse(BatchItemResult[] results) {
+        int succeeded = 0;
+        for (BatchItemResult result : results) {
+            if (result.errors() == null) {
+                succeeded++;
+            }
+        }
+        return new BatchResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can hold at most " + MAX_BATCH_SIZE + " items");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.domain.exceptions.ChangeFeedGapException;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.ports.PetChangeFeed;
+import com.example.pets.infrastructure.changes.ChangeFeedProperties;
+import com.example.pets.infrastructure.web.dto.PetChangeResponse;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/v1/pets")
+public class PetChangeController implements SmartLifecycle {
+
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    static final String RESET_EVENT = "reset";
+    private static final int BATCH_SIZE = 256;
+    // offsets start over when the application restarts, so event ids name the run they belong to
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private final PetChangeFeed changeFeed;
+    private final PetMapper petMapper;
+    private final ChangeFeedProperties properties;
+    private final Semaphore subscribers;
+    private final SimpleAsyncTaskExecutor executor;
+    private final Set<SseEmitter> openStreams = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+
+    public PetChangeController(PetChangeFeed changeFeed, PetMapper petMapper, ChangeFeedProperties properties,
+                               Environment environment) {
+        this.changeFeed = changeFeed;
+        this.petMapper = petMapper;
+        this.properties = properties;
+        this.subscribers = new Semaphore(properties.maxSubscribers());
+        // one thread per stream: a slow client blocks only its own sends
+        this.executor = new SimpleAsyncTaskExecutor("pet-changes-");
+        this.executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        this.executor.setDaemon(true);
+    }
+
+    @Operation(summary = "Stream pet changes",
+            description = "Server-Sent Events with one created, updated or deleted event per write, starting after the "
+                    + "Last-Event-ID header or from now. A client that falls too far behind, or resumes from an id that "
+                    + "is no longer retained, gets a reset event and is disconnected; it should reload the pets and "
+                    + "reconnect with the reset event's id. Answers 503 when too many streams are open")
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        if (!subscribers.tryAcquire()) {
+            log.warn("Rejecting change stream: {} streams already open", properties.maxSubscribers());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        SseEmitter emitter = new SseEmitter();
+        AtomicBoolean open = new AtomicBoolean(true);
+        openStreams.add(emitter);
+        emitter.onCompletion(() -> close(emitter, open));
+        emitter.onTimeout(() -> close(emitter, open));
+        emitter.onError(ex -> close(emitter, open));
+        try {
+            executor.execute(() -> stream(emitter, open, lastEventId));
+        } catch (RuntimeException ex) {
+            subscribers.release();
+            throw ex;
+        }
+        return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, "no-cache").body(emitter);
+    }
+
+    /**
+     * Completes every open stream before the web server shuts down, which would otherwise wait for them to end.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        openStreams.forEach(SseEmitter::complete);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void close(SseEmitter emitter, AtomicBoolean open) {
+        open.set(false);
+        openStreams.remove(emitter);
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean open, String lastEventId) {
+        try {
+            long cursor = changeFeed.lastOffset();
+            if (lastEventId != null) {
+                Long resumeAfter = parseEventId(lastEventId);
+                if (resumeAfter == null || resumeAfter > cursor) {
+                    reset(emitter, cursor, "Unknown event id " + lastEventId);
+                    return;
+                }
+                cursor = resumeAfter;
+            }
+            // commits the response, so the client sees the stream open before the first change or heartbeat
+            emitter.send(SseEmitter.event().comment("open"));
+            while (open.get()) {
+                List<PetChange> changes = changeFeed.awaitAfter(cursor, BATCH_SIZE, properties.heartbeat());
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                for (PetChange change : changes) {
+                    emitter.send(toEvent(change));
+                    cursor = change.offset();
+                }
+            }
+        } catch (ChangeFeedGapException ex) {
+            log.info("Change stream fell behind: {}", ex.getMessage());
+            reset(emitter, changeFeed.lastOffset(), ex.getMessage());
+        } catch (IOException | IllegalStateException ex) {
+            // the client went away or the emitter timed out
+            log.debug("Change stream closed: {}", ex.getMessage());
+        } finally {
+            subscribers.release();
+        }
+    }
+
+    private void reset(SseEmitter emitter, long resumeAfter, String reason) {
+        try {
+            emitter.send(SseEmitter.event().id(eventId(resumeAfter)).name(RESET_EVENT).data(reason));
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Could not send reset event: {}", ex.getMessage());
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toEvent(PetChange change) {
+        PetChangeResponse response = new PetChangeResponse(change.offset(), change.type().name(), change.petId(),
+                change.version(), change.pet() != null ? petMapper.toResponse(change.pet()) : null);
+        return SseEmitter.event()
+                .id(eventId(change.offset()))
+                .name(change.type().name().toLowerCase(Locale.ROOT))
+                .data(response, MediaType.APPLICATION_JSON);
+    }
+
+    private static String eventId(long offset) {
+        return EPOCH + "-" + offset;
+    }
+
+    private static Long parseEventId(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(EPOCH)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
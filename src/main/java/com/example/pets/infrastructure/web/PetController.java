@@ -2,78 +2,227 @@ package com.example.pets.infrastructure.web;
 
 import com.example.pets.application.port.in.PetUseCase;
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.infrastructure.web.admission.ClientResolver;
 import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetFields;
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
 import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.dto.PetStatsResponse;
 import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.example.pets.infrastructure.web.idempotency.IdempotencyStore;
 import com.example.pets.infrastructure.web.mapper.PetMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
-@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/api/v1/pets")
 @RequiredArgsConstructor
 @Validated
 public class PetController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String FIELDS_DESCRIPTION = "fields=id,name returns only the listed properties of each pet";
+
     private final PetUseCase petUseCase;
     private final PetMapper petMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final ClientResolver clientResolver;
 
-    @Operation(summary = "Create a new pet", description = "Creates a pet and returns the created pet details")
+    @Operation(summary = "Create a new pet", description = "Creates a pet and returns the created pet details. "
+            + "A retry from the same client with the same Idempotency-Key gets the first pet back instead of creating "
+            + "another; reusing a key for a different pet is rejected with 422")
     @PostMapping
-    public ResponseEntity<PetResponse> createPet(@Valid @RequestBody PetCreateRequest request) {
-        log.info("Creating pet: {}", request);
-        Pet pet = petMapper.toDomain(request);
-        Pet created = petUseCase.createPet(pet);
-        PetResponse response = petMapper.toResponse(created);
-        log.info("Created pet with ID: {}", response.id());
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<PetResponse> createPet(@Valid @RequestBody PetCreateRequest request,
+                                                 @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 HttpServletRequest servletRequest) {
+        if (idempotencyKey == null) {
+            return created(create(request), accept);
+        }
+        return idempotencyStore.execute(clientResolver.client(servletRequest), idempotencyKey, request,
+                () -> create(request), created -> created(created, accept));
+    }
+
+    private Pet create(PetCreateRequest request) {
+        return petUseCase.createPet(petMapper.toDomain(request));
+    }
+
+    private ResponseEntity<PetResponse> created(Pet created, String accept) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(PetETag.of(created.getVersion(), accept, PetFields.ALL))
+                .body(petMapper.toResponse(created));
     }
 
-    @Operation(summary = "Update a pet", description = "Updates an existing pet by its ID")
+    @Operation(summary = "Update a pet", description = "Updates an existing pet by its ID. "
+            + "With If-Match the update only applies while the pet's ETag still matches, otherwise 412 is returned")
     @PutMapping("/{id}")
-    public ResponseEntity<PetResponse> updatePet(@PathVariable Long id, @Valid @RequestBody PetUpdateRequest request) {
-        log.info("Updating pet with ID {}: {}", id, request);
+    public ResponseEntity<PetResponse> updatePet(@PathVariable Long id, @Valid @RequestBody PetUpdateRequest request,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         Pet petUpdates = petMapper.toDomain(request);
-        Pet updated = petUseCase.updatePet(id, petUpdates);
+        Pet updated = petUseCase.updatePet(id, petUpdates, PetETag.expectedVersion(ifMatch));
         PetResponse response = petMapper.toResponse(updated);
-        log.info("Updated pet with ID {}", id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(PetETag.of(updated.getVersion(), accept, PetFields.ALL)).body(response);
     }
 
-    @Operation(summary = "Get a pet by ID", description = "Returns the details of a pet by its ID")
+    @Operation(summary = "Get a pet by ID", description = "Returns the details of a pet by its ID. "
+            + "Answers 304 without a body when If-None-Match holds the pet's current ETag. " + FIELDS_DESCRIPTION)
     @GetMapping("/{id}")
-    public ResponseEntity<PetResponse> getPet(@PathVariable Long id) {
-        log.info("Fetching pet with ID {}", id);
+    public ResponseEntity<PetRepresentation> getPet(@PathVariable Long id,
+                                                    @RequestParam(required = false) String fields,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                    WebRequest request) {
+        PetFields selected = PetFields.parse(fields);
         Pet pet = petUseCase.getPet(id);
+        String eTag = PetETag.of(pet.getVersion(), accept, selected);
+        if (request.checkNotModified(eTag)) {
+            // the 304 status and ETag header are already set; skip mapping and serialization
+            return null;
+        }
         PetResponse response = petMapper.toResponse(pet);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(eTag).body(selected.select(response));
+    }
+
+    @Operation(summary = "Search pets by name", description = "Returns up to limit pets whose name or owner name "
+            + "matches q case-insensitively: names before owner names, words starting with q before words one typo away. "
+            + FIELDS_DESCRIPTION)
+    @GetMapping("/search")
+    public ResponseEntity<List<PetRepresentation>> searchPets(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "" + DEFAULT_SEARCH_LIMIT) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        PetFields selected = PetFields.parse(fields);
+        String eTag = listETag(request, selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<Pet> pets = petUseCase.searchByName(q, limit);
+        return ResponseEntity.ok().eTag(eTag).body(toResponses(pets, selected));
+    }
+
+    @Operation(summary = "Pet statistics", description = "Returns pet counts per species and age and the distribution of "
+            + "pets per owner. The counts are kept up to date on every write, so reading them does not scan the pets")
+    @GetMapping("/stats")
+    public ResponseEntity<PetStatsResponse> getStatistics(WebRequest request) {
+        String eTag = listETag(request, PetFields.ALL);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(petMapper.toResponse(petUseCase.getStatistics()));
     }
 
     @Operation(summary = "Delete a pet", description = "Deletes a pet by its ID")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePet(@PathVariable Long id) {
-        log.info("Deleting pet with ID {}", id);
         petUseCase.deletePet(id);
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "List all pets", description = "Returns a list of all pets")
+    @Operation(summary = "List pets", description = "Returns all pets, or one page of pets ordered by ID when limit or after is given. "
+            + "The cursor for the next page is returned in the X-Next-Cursor and Link headers. "
+            + "species and owner filter the list case-insensitively. "
+            + "minAge, maxAge and sort=age (youngest first) or sort=-age (oldest first) query the age index, "
+            + "with limit capping the number of results. Filters cannot be combined with each other or with the cursor. "
+            + "The ETag changes whenever any pet is written; If-None-Match with the current one answers 304 without a body. "
+            + FIELDS_DESCRIPTION)
     @GetMapping
-    public ResponseEntity<List<PetResponse>> getAllPets() {
-        log.info("Fetching all pets");
-        List<Pet> pets = petUseCase.getAllPets();
-        List<PetResponse> responses = pets.stream()
-                .map(petMapper::toResponse)
+    public ResponseEntity<List<PetRepresentation>> getAllPets(
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) @Min(0) Integer minAge,
+            @RequestParam(required = false) @Min(0) Integer maxAge,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        PetFields selected = PetFields.parse(fields);
+        boolean attributeFilter = species != null || owner != null;
+        boolean ageQuery = minAge != null || maxAge != null || sort != null;
+        checkListQuery(attributeFilter, ageQuery, limit, after);
+        // read before the query: a write racing it can only make the tag older than the body, never newer
+        String eTag = listETag(request, selected);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        if (attributeFilter) {
+            List<Pet> pets = petUseCase.getPetsMatching(species, owner);
+            return ResponseEntity.ok().eTag(eTag).body(toResponses(pets, selected));
+        }
+        if (ageQuery) {
+            List<Pet> pets = petUseCase.getPetsByAge(minAge, maxAge, isOldestFirst(sort), limit != null ? limit : Integer.MAX_VALUE);
+            return ResponseEntity.ok().eTag(eTag).body(toResponses(pets, selected));
+        }
+        if (limit == null && after == null) {
+            List<Pet> pets = petUseCase.getAllPets();
+            return ResponseEntity.ok().eTag(eTag).body(toResponses(pets, selected));
+        }
+        return getPetPage(limit, after, selected, eTag);
+    }
+
+    private ResponseEntity<List<PetRepresentation>> getPetPage(Integer limit, String after, PetFields fields, String eTag) {
+        PetPage page = petUseCase.getPetPage(PageCursor.decode(after), limit != null ? limit : DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(eTag);
+        if (page.hasNext()) {
+            String nextCursor = PageCursor.encode(page.nextAfterId());
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .toUriString();
+            builder.header(NEXT_CURSOR_HEADER, nextCursor)
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return builder.body(toResponses(page.items(), fields));
+    }
+
+    private String listETag(WebRequest request, PetFields fields) {
+        String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        return PetETag.ofList(petUseCase.getModificationCount(), accept != null ? String.join(",", accept) : null, fields);
+    }
+
+    // shared with ReactivePetController
+    static void checkListQuery(boolean attributeFilter, boolean ageQuery, Integer limit, String after) {
+        if (attributeFilter && (ageQuery || limit != null || after != null)) {
+            throw new IllegalArgumentException("species and owner filters cannot be combined with paging or age queries");
+        }
+        if (ageQuery && after != null) {
+            throw new IllegalArgumentException("Age queries do not support the after cursor");
+        }
+    }
+
+    static boolean isOldestFirst(String sort) {
+        if (sort == null || sort.equals("age")) {
+            return false;
+        }
+        if (sort.equals("-age")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort + " (expected age or -age)");
+    }
+
+    private List<PetRepresentation> toResponses(List<Pet> pets, PetFields fields) {
+        return pets.stream()
+                .map(pet -> fields.select(petMapper.toResponse(pet)))
                 .toList();
-        return ResponseEntity.ok(responses);
     }
 }
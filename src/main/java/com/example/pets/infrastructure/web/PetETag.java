@@ -0,0 +1,87 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.infrastructure.web.dto.PetFields;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Single pets are tagged with their version, the encoding the client accepts and the selected fields, as strong tags
+ * that If-Match can compare. The version is stored with the pet, so a tag stays valid on every instance and across
+ * restarts for as long as the pet is unchanged. Lists and statistics are tagged with the repository's modification
+ * count, the encoding and the selected fields, as weak tags: they are only used for If-None-Match, and Tomcat does
+ * not compress responses that carry a strong tag, since the compressed body is a different representation.
+ */
+final class PetETag {
+
+    // no pet ever has this version, so a tag that cannot match fails the precondition like a stale one
+    private static final long UNMATCHABLE = -1;
+    // the modification count is kept per process and starts over on restart, so a list tag from another run must
+    // not match a new one
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+    // in the order the message converters and codecs are registered, which decides ties and wildcards
+    private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType("application/x-jackson-smile"), MediaType.parseMediaType("application/x-protobuf"));
+
+    private PetETag() {
+    }
+
+    static String of(Long version, String accept, PetFields fields) {
+        return "\"" + version + "-" + variant(accept, fields) + "\"";
+    }
+
+    static String ofList(long modificationCount, String accept, PetFields fields) {
+        return "W/\"" + EPOCH + "-" + modificationCount + "-" + variant(accept, fields) + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when the header is absent or {@code *}.
+     * If-Match uses strong comparison, so weak or malformed tags never match; any encoding and field selection of the
+     * current version does, since they all describe the same write.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        int end = tag.indexOf('-');
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"' || end < 0) {
+            return UNMATCHABLE;
+        }
+        try {
+            return Long.parseLong(tag, 1, end, 10);
+        } catch (NumberFormatException ex) {
+            return UNMATCHABLE;
+        }
+    }
+
+    private static String variant(String accept, PetFields fields) {
+        String subtype = encoding(accept).getSubtype();
+        return fields == PetFields.ALL ? subtype : subtype + "-" + fields.key();
+    }
+
+    // the same choice Spring makes: the most specific, highest quality accepted type picks the first encoding it fits
+    private static MediaType encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return ENCODINGS.get(0);
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            // content negotiation answers a malformed Accept header itself; the tag must not fail first
+            return ENCODINGS.get(0);
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            for (MediaType encoding : ENCODINGS) {
+                if (mediaType.isCompatibleWith(encoding)) {
+                    return encoding;
+                }
+            }
+        }
+        return ENCODINGS.get(0);
+    }
+}
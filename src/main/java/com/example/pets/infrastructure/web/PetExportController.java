@@ -0,0 +1,135 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.application.port.in.PetUseCase;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.infrastructure.web.dto.PetFields;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+@RequestMapping("/api/v1/pets")
+public class PetExportController {
+
+    // flush the first item right away so clients see bytes quickly, then let the container buffer do its job
+    private static final int FLUSH_EVERY = 1024;
+
+    private final PetUseCase petUseCase;
+    private final PetMapper petMapper;
+    private final ObjectWriter writer;
+
+    public PetExportController(PetUseCase petUseCase, PetMapper petMapper, ObjectMapper objectMapper) {
+        this.petUseCase = petUseCase;
+        this.petMapper = petMapper;
+        this.writer = objectMapper.writerFor(PetResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Operation(summary = "Export all pets",
+            description = "Streams every pet as newline-delimited JSON (application/x-ndjson, default) "
+                    + "or as a chunked JSON array (application/json). " + PetController.FIELDS_DESCRIPTION)
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportPets(
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        PetFields selected = PetFields.parse(fields);
+        boolean jsonArray = prefersJsonArray(accept);
+        StreamingResponseBody body = out -> {
+            try (Stream<Pet> pets = petUseCase.streamAllPets()) {
+                long written = jsonArray
+                        ? writeArray(pets.iterator(), selected, out)
+                        : writeNdjson(pets.iterator(), selected, out);
+                log.debug("Exported {} pets", written);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(jsonArray ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private long writeNdjson(Iterator<Pet> pets, PetFields fields, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = newGenerator(out)) {
+            while (pets.hasNext()) {
+                write(petMapper.toResponse(pets.next()), fields, generator);
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY == 1) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeArray(Iterator<Pet> pets, PetFields fields, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = newGenerator(out)) {
+            generator.writeStartArray();
+            while (pets.hasNext()) {
+                write(petMapper.toResponse(pets.next()), fields, generator);
+                if (++count % FLUSH_EVERY == 1) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private void write(PetResponse pet, PetFields fields, JsonGenerator generator) throws IOException {
+        if (fields == PetFields.ALL) {
+            writer.writeValue(generator, pet);
+        } else {
+            fields.write(pet, generator);
+        }
+    }
+
+    private JsonGenerator newGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = writer.getFactory().createGenerator(out);
+        // the container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static boolean prefersJsonArray(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON) && !mediaType.isWildcardType()
+                    && !mediaType.isWildcardSubtype()) {
+                return false;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) && !mediaType.isWildcardSubtype()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
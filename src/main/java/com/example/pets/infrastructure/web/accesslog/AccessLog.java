@@ -0,0 +1,155 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * One line per answered request on the {@code pets.access} logger. Request threads only decide whether to keep the
+ * request and put a small event in an {@link AccessLogBuffer}; a single writer thread formats the events and hands
+ * them to the logging framework, so appender locks and message formatting stay off the request path.
+ * <p>
+ * Requests answered below 400 are kept at {@link AccessLogProperties#successSampleRate()}, errors always. An event
+ * that finds the buffer full is dropped rather than waited for. Written, skipped and dropped events are counted in
+ * {@code pets.access.log.events}.
+ */
+@Slf4j(topic = "pets.access")
+public class AccessLog implements MeterBinder, SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AccessLogBuffer buffer;
+    private final double successSampleRate;
+    private final Consumer<AccessLogEvent> writer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    public AccessLog(AccessLogProperties properties) {
+        this(properties, AccessLog::write);
+    }
+
+    AccessLog(AccessLogProperties properties, Consumer<AccessLogEvent> writer) {
+        this.buffer = new AccessLogBuffer(properties.bufferSize());
+        this.successSampleRate = properties.successSampleRate();
+        this.writer = writer;
+    }
+
+    public void record(String method, String path, int status, long durationNanos) {
+        if (status < 400 && !sampled()) {
+            skipped.increment();
+            return;
+        }
+        if (!buffer.offer(new AccessLogEvent(System.currentTimeMillis(), method, path, status, durationNanos))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes every buffered event and returns how many there were.
+     */
+    int drain() {
+        int count = 0;
+        for (AccessLogEvent event = buffer.poll(); event != null; event = buffer.poll()) {
+            writer.accept(event);
+            count++;
+        }
+        written.add(count);
+        return count;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::writeUntilStopped, "pets-access-log");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests still draining at shutdown are logged.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "written", written);
+        bindCounter(registry, "skipped", skipped);
+        bindCounter(registry, "dropped", dropped);
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long skipped() {
+        return skipped.sum();
+    }
+
+    private void writeUntilStopped() {
+        while (running) {
+            if (drain() == 0) {
+                // polled rather than signalled, so request threads never pay for waking the writer
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+    }
+
+    private boolean sampled() {
+        return successSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder("pets.access.log.events", count, LongAdder::sum)
+                .tag("result", result)
+                .description("Access log events by what became of them")
+                .register(registry);
+    }
+
+    private static void write(AccessLogEvent event) {
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(event.durationNanos());
+        log.atInfo()
+                .addKeyValue("timestamp", Instant.ofEpochMilli(event.epochMillis()))
+                .addKeyValue("method", event.method())
+                .addKeyValue("path", event.path())
+                .addKeyValue("status", event.status())
+                .addKeyValue("durationMicros", durationMicros)
+                .log("{} {} {} {}us", event.method(), event.path(), event.status(), durationMicros);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring for many producers and one consumer. Each slot carries a sequence number that tells whose turn it is:
+ * a producer claims the next position with a compare-and-set once the slot's sequence says it is free, stores its
+ * event and then advances the sequence to publish it. When the ring is full {@link #offer} fails at once instead of
+ * waiting, so request threads never block on the writer.
+ */
+class AccessLogBuffer {
+
+    private final AtomicReferenceArray<AccessLogEvent> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // only the consumer moves the head
+    private long head;
+
+    AccessLogBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AccessLogEvent event) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long lag = sequences.get(slot) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(slot, event);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // the consumer has not freed this slot since the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    AccessLogEvent poll() {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) {
+            // empty, or claimed but not stored yet
+            return null;
+        }
+        AccessLogEvent event = slots.get(slot);
+        slots.set(slot, null);
+        sequences.set(slot, head + slots.length());
+        head++;
+        return event;
+    }
+}
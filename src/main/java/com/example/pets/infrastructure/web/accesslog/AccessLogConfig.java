@@ -0,0 +1,22 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "pets.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean
+    AccessLog accessLog(AccessLogProperties properties) {
+        return new AccessLog(properties);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    AccessLogFilter accessLogFilter(AccessLog accessLog) {
+        return new AccessLogFilter(accessLog);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+/**
+ * One answered request, captured on the request thread and formatted later by the access log writer.
+ */
+record AccessLogEvent(long epochMillis, String method, String path, int status, long durationNanos) {
+}
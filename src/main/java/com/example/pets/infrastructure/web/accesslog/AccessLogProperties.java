@@ -0,0 +1,15 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param successSampleRate share of requests answered below 400 that are logged, from 0 to 1; errors are always logged
+ * @param bufferSize        how many entries may wait for the writer; past it new entries are dropped and counted
+ */
+@ConfigurationProperties(prefix = "pets.access-log")
+public record AccessLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1.0") double successSampleRate,
+        @DefaultValue("8192") int bufferSize) {
+}
@@ -0,0 +1,80 @@
+package com.example.pets.infrastructure.web.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the requests in flight at a limit that follows their response times (additive increase, multiplicative
+ * decrease). A response slower than the threshold cuts the limit by a tenth; a fast one while the limit is at least
+ * half used raises it by one. Only one cut is made per round of requests: a slow response from a request admitted
+ * before the last cut says nothing about the current limit.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, initialLimit)));
+        this.lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request admitted at {@code startNanos} and adjusts the limit to how long it took.
+     */
+    void release(long startNanos, long endNanos) {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (endNanos - startNanos > latencyThresholdNanos) {
+            decrease(startNanos, endNanos);
+        } else if (wasInFlight * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Ends a request whose duration is not a response time, such as one that went on streaming asynchronously.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void decrease(long startNanos, long endNanos) {
+        long last = lastDecreaseNanos.get();
+        if (startNanos - last < 0 || !lastDecreaseNanos.compareAndSet(last, endNanos)) {
+            return;
+        }
+        limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.pets.infrastructure.web.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "pets.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    @Bean
+    AdmissionControl admissionControl(AdmissionProperties properties) {
+        return new AdmissionControl(properties);
+    }
+
+    @Bean
+    AdmissionFilter admissionFilter(AdmissionControl admissionControl, ClientResolver clientResolver,
+                                    ObjectMapper objectMapper) {
+        return new AdmissionFilter(admissionControl, clientResolver, objectMapper);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.pets.infrastructure.web.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides, before any other work is done, whether a request is served. A client over its rate is refused first, so
+ * one busy client cannot take the in-flight slots of the others; then the request needs a slot under the
+ * {@link AdaptiveConcurrencyLimit}. Every admitted request must be released exactly once.
+ * <p>
+ * Decisions are counted in {@code pets.admission.requests} by result; the current limit and the requests in flight
+ * are published as {@code pets.admission.limit} and {@code pets.admission.in.flight}.
+ */
+public class AdmissionControl implements MeterBinder {
+
+    enum Admission {
+        ADMITTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+
+    public AdmissionControl(AdmissionProperties properties) {
+        this.rateLimiter = new ClientRateLimiter(properties.ratePerSecond(), properties.burst(), properties.maxClients());
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(properties.initialLimit(), properties.minLimit(),
+                properties.maxLimit(), properties.latencyThreshold().toNanos());
+    }
+
+    Admission admit(String client) {
+        if (!rateLimiter.tryAcquire(client, System.nanoTime())) {
+            rateLimited.increment();
+            return Admission.RATE_LIMITED;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            overloaded.increment();
+            return Admission.OVERLOADED;
+        }
+        admitted.increment();
+        return Admission.ADMITTED;
+    }
+
+    /**
+     * Releases a request admitted at {@code startNanos} that has been answered.
+     */
+    void release(long startNanos) {
+        concurrencyLimit.release(startNanos, System.nanoTime());
+    }
+
+    /**
+     * Releases a request that goes on asynchronously, without counting its duration as a response time.
+     */
+    void releaseUnmeasured() {
+        concurrencyLimit.release();
+    }
+
+    long retryAfterNanos() {
+        return rateLimiter.retryAfterNanos();
+    }
+
+    int limit() {
+        return concurrencyLimit.limit();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "admitted", admitted);
+        bindCounter(registry, "rate_limited", rateLimited);
+        bindCounter(registry, "overloaded", overloaded);
+        Gauge.builder("pets.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Requests allowed in flight")
+                .register(registry);
+        Gauge.builder("pets.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Admitted requests not answered yet")
+                .register(registry);
+        Gauge.builder("pets.admission.clients", rateLimiter, ClientRateLimiter::clients)
+                .description("Clients with a tracked rate limit bucket")
+                .register(registry);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder count) {
+        FunctionCounter.builder("pets.admission.requests", count, LongAdder::sum)
+                .tag("result", result)
+                .description("Requests by admission decision")
+                .register(registry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.pets.infrastructure.web.admission;
+
+import com.example.pets.infrastructure.web.admission.AdmissionControl.Admission;
+import com.example.pets.infrastructure.web.error.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link AdmissionControl} in front of the API, keyed by the client {@link ClientResolver} names. The remote
+ * address is already the forwarded one under {@code server.forward-headers-strategy}, since Tomcat's valve and
+ * {@code ForwardedHeaderFilter} both run before this filter. Refused requests are answered here with 429 or 503, a
+ * {@code Retry-After} header and the same {@link ApiError} body {@code GlobalExceptionHandler} writes, without reaching
+ * Spring MVC, so shedding load costs next to nothing. Actuator endpoints are never refused.
+ */
+class AdmissionFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String API_PREFIX = "/api/";
+
+    private final AdmissionControl admissionControl;
+    private final ClientResolver clientResolver;
+    private final ObjectMapper objectMapper;
+    private final Rejection rateLimited;
+    private final Rejection overloaded;
+
+    AdmissionFilter(AdmissionControl admissionControl, ClientResolver clientResolver, ObjectMapper objectMapper) {
+        this.admissionControl = admissionControl;
+        this.clientResolver = clientResolver;
+        this.objectMapper = objectMapper;
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                admissionControl.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+        this.rateLimited = new Rejection(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                "Request rate limit exceeded");
+        this.overloaded = new Rejection(HttpStatus.SERVICE_UNAVAILABLE, 1, "Service is overloaded");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Admission admission = admissionControl.admit(clientResolver.client(request));
+        if (admission != Admission.ADMITTED) {
+            (admission == Admission.RATE_LIMITED ? rateLimited : overloaded).write(request, response, objectMapper);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // streaming exports and change feeds stay open far longer than any response time
+                admissionControl.releaseUnmeasured();
+            } else {
+                admissionControl.release(start);
+            }
+        }
+    }
+
+    /**
+     * After the access log, so refused requests are logged, and before every other filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private record Rejection(HttpStatus status, String retryAfter, String message) {
+
+        Rejection(HttpStatus status, long retryAfterSeconds, String message) {
+            this(status, Long.toString(retryAfterSeconds), message);
+        }
+
+        void write(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper)
+                throws IOException {
+            ApiError body = new ApiError(Instant.now(), status.value(), status.getReasonPhrase(), message,
+                    request.getRequestURI(), List.of("Retry after " + retryAfter + " seconds"));
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            response.setStatus(status.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(json.length);
+            response.getOutputStream().write(json);
+        }
+    }
+}
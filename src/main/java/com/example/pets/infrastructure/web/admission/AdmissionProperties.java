@@ -0,0 +1,32 @@
+package com.example.pets.infrastructure.web.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled          turns admission control on; off by default, since the rates only make sense once clients
+ *                         can be told apart
+ * @param clientHeader     request header set by a trusted proxy that names the client, for example
+ *                         {@code X-Real-IP}; when empty or absent on a request the remote address is used
+ * @param ratePerSecond    sustained requests per second allowed to one client
+ * @param burst            requests a client may send at once before being held to the rate
+ * @param maxClients       most clients tracked; those with a full bucket are forgotten first, then those closest to it
+ * @param initialLimit     requests allowed in flight at startup
+ * @param minLimit         lowest the in-flight limit shrinks to under slow responses
+ * @param maxLimit         highest the in-flight limit grows to under fast responses
+ * @param latencyThreshold response time above which the in-flight limit is reduced
+ */
+@ConfigurationProperties(prefix = "pets.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String clientHeader,
+        @DefaultValue("100") double ratePerSecond,
+        @DefaultValue("200") int burst,
+        @DefaultValue("100000") int maxClients,
+        @DefaultValue("100") int initialLimit,
+        @DefaultValue("10") int minLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("100ms") Duration latencyThreshold) {
+}
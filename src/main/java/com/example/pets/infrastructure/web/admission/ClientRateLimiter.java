@@ -0,0 +1,117 @@
+package com.example.pets.infrastructure.web.admission;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client, kept as a single theoretical arrival time (the generic cell rate algorithm): each request
+ * pushes it one emission interval further, and a request that would push it more than a burst ahead of now is
+ * refused. Taking a token is one compare-and-set, with no lock and no refill timer.
+ * <p>
+ * Buckets live in a fixed number of independent maps. When a map reaches its share of
+ * {@link AdmissionProperties#maxClients()}, only that map is swept of buckets that have refilled completely; a
+ * forgotten client starts again with a full bucket, which is exactly what it had. If none has, the bucket closest to
+ * refilling makes room, so the number of tracked clients stays bounded however many arrive.
+ */
+final class ClientRateLimiter {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxClientsPerStripe;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxClientsPerStripe = Math.max(1, maxClients / STRIPES);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes a token from the client's bucket, if it has one.
+     */
+    boolean tryAcquire(String client, long nowNanos) {
+        AtomicLong arrival = bucket(client, nowNanos);
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > burstNanos) {
+                return false;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The longest a refused client has to wait for its next token: at most one emission interval.
+     */
+    long retryAfterNanos() {
+        return emissionIntervalNanos;
+    }
+
+    int clients() {
+        int clients = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            clients += stripe.size();
+        }
+        return clients;
+    }
+
+    private AtomicLong bucket(String client, long nowNanos) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[stripe(client.hashCode())];
+        AtomicLong arrival = stripe.get(client);
+        if (arrival != null) {
+            return arrival;
+        }
+        if (stripe.size() >= maxClientsPerStripe) {
+            makeRoom(stripe, nowNanos);
+        }
+        AtomicLong created = new AtomicLong(nowNanos);
+        arrival = stripe.putIfAbsent(client, created);
+        return arrival != null ? arrival : created;
+    }
+
+    /**
+     * Forgets every bucket that has refilled completely, in one pass that also finds the bucket closest to refilling.
+     * If nothing had refilled, that one is forgotten, so a flood of new clients cannot grow the stripe past its share:
+     * its client gets back at most the tokens it was still waiting for. Racing with a request that just used a
+     * forgotten bucket lets that request through for free, which is harmless.
+     */
+    private void makeRoom(ConcurrentHashMap<String, AtomicLong> stripe, long nowNanos) {
+        String oldest = null;
+        long oldestArrival = 0;
+        for (Iterator<Map.Entry<String, AtomicLong>> it = stripe.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, AtomicLong> entry = it.next();
+            long arrival = entry.getValue().get();
+            if (arrival - nowNanos <= 0) {
+                it.remove();
+            } else if (oldest == null || arrival - oldestArrival < 0) {
+                oldest = entry.getKey();
+                oldestArrival = arrival;
+            }
+        }
+        if (oldest != null && stripe.size() >= maxClientsPerStripe) {
+            stripe.remove(oldest);
+        }
+    }
+
+    // Fibonacci hashing: addresses differing only in their last characters still land in different stripes
+    private static int stripe(int hash) {
+        return (hash * 0x9E3779B9) >>> (Integer.SIZE - STRIPE_BITS);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.pets.infrastructure.web.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names the client behind a request: its remote address, or the configured client header when a trusted proxy sets
+ * it. Rate limits and idempotency keys are both scoped to this name, so one client can neither use up another's
+ * requests nor replay another's responses.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientResolver {
+
+    private final String clientHeader;
+
+    @Autowired
+    public ClientResolver(AdmissionProperties properties) {
+        this(properties.clientHeader());
+    }
+
+    public ClientResolver(String clientHeader) {
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    // a proxy that appends to a list header puts the address it saw last, and only that entry is not client supplied
+    public String client(HttpServletRequest request) {
+        String forwarded = clientHeader != null ? request.getHeader(clientHeader) : null;
+        if (forwarded == null || forwarded.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+    }
+}
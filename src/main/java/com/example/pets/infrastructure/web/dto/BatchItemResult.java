@@ -0,0 +1,25 @@
+package com.example.pets.infrastructure.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(
+        @Schema(description = "Position of the item in the request", example = "0")
+        int index,
+
+        @Schema(description = "ID of the pet the item refers to", example = "1")
+        Long id,
+
+        @Schema(description = "HTTP status the item would have had as a single request", example = "201")
+        int status,
+
+        @Schema(description = "The created or updated pet")
+        PetResponse pet,
+
+        @Schema(description = "Why the item failed")
+        List<String> errors
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.pets.infrastructure.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record BatchResponse(
+        @Schema(description = "Number of items that succeeded", example = "2")
+        int succeeded,
+
+        @Schema(description = "Number of items that failed", example = "0")
+        int failed,
+
+        @Schema(description = "One result per request item, in request order")
+        List<BatchItemResult> results
+) {
+}
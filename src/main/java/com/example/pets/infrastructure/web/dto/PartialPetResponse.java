@@ -0,0 +1,28 @@
+package com.example.pets.infrastructure.web.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * A {@link PetResponse} written with only the selected {@link PetFields}.
+ */
+@JsonSerialize(using = PartialPetResponse.Serializer.class)
+public record PartialPetResponse(PetResponse pet, PetFields fields) implements PetRepresentation {
+
+    static final class Serializer extends StdSerializer<PartialPetResponse> {
+
+        Serializer() {
+            super(PartialPetResponse.class);
+        }
+
+        @Override
+        public void serialize(PartialPetResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            value.fields().write(value.pet(), generator);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pets.infrastructure.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PetChangeResponse(
+        @Schema(description = "Position of the change in the feed", example = "42")
+        long offset,
+
+        @Schema(description = "Kind of change", example = "UPDATED")
+        String type,
+
+        @Schema(description = "ID of the changed pet", example = "1")
+        Long petId,
+
+        @Schema(description = "Version the change was applied at; one past the deleted pet's for deletes", example = "3")
+        long version,
+
+        @Schema(description = "The pet as written; absent for deletes")
+        PetResponse pet
+) {
+}
@@ -0,0 +1,102 @@
+package com.example.pets.infrastructure.web.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link PetResponse} properties a client asked for with {@code fields=id,name}. Selected properties are written
+ * in their usual order, whatever order they were listed in.
+ */
+public final class PetFields {
+
+    public static final PetFields ALL = new PetFields(EnumSet.allOf(Field.class));
+
+    private final Set<Field> selected;
+
+    private PetFields(Set<Field> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Parses a comma-separated list of {@link PetResponse} property names; null selects every property.
+     */
+    public static PetFields parse(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        EnumSet<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(Field.named(name.strip()));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one of " + Field.names());
+        }
+        return selected.size() == Field.values().length ? ALL : new PetFields(selected);
+    }
+
+    /**
+     * The selected property names in their usual order, joined by dots, as a short token for cache validators.
+     */
+    public String key() {
+        return selected.stream().map(field -> field.jsonName).collect(Collectors.joining("."));
+    }
+
+    public PetRepresentation select(PetResponse pet) {
+        return this == ALL ? pet : new PartialPetResponse(pet, this);
+    }
+
+    public void write(PetResponse pet, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (Field field : selected) {
+            generator.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID -> writeNumber(generator, pet.id());
+                case NAME -> generator.writeString(pet.name());
+                case SPECIES -> generator.writeString(pet.species());
+                case AGE -> writeNumber(generator, pet.age());
+                case OWNER_NAME -> generator.writeString(pet.ownerName());
+                case VERSION -> writeNumber(generator, pet.version());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    // in PetResponse order
+    private enum Field {
+        ID("id"), NAME("name"), SPECIES("species"), AGE("age"), OWNER_NAME("ownerName"), VERSION("version");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        private static Field named(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown field: " + name + " (expected some of " + names() + ")");
+        }
+
+        private static String names() {
+            return Arrays.stream(values()).map(field -> field.jsonName).collect(Collectors.joining(", "));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.pets.infrastructure.web.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+
+/**
+ * A pet as returned by the read endpoints: the full {@link PetResponse}, or a {@link PartialPetResponse} when the
+ * client listed the fields it wants.
+ */
+@Schema(implementation = PetResponse.class)
+@JsonSerialize(using = PetRepresentation.RuntimeTypeSerializer.class)
+public sealed interface PetRepresentation permits PetResponse, PartialPetResponse {
+
+    /**
+     * Jackson serializes the elements of a {@code List<PetRepresentation>} as the declared interface, which has no
+     * properties; this hands each one to the serializer of its actual type instead. Both implementations declare
+     * their own {@link JsonSerialize}, so they do not inherit this one.
+     */
+    final class RuntimeTypeSerializer extends StdSerializer<PetRepresentation> {
+
+        RuntimeTypeSerializer() {
+            super(PetRepresentation.class);
+        }
+
+        @Override
+        public void serialize(PetRepresentation value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            provider.findValueSerializer(value.getClass()).serialize(value, generator, provider);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.pets.infrastructure.web.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+// a plain bean serializer, rather than the one inherited from PetRepresentation
+@JsonSerialize
 public record PetResponse(
         @Schema(description = "ID of the pet", example = "1")
         Long id,
@@ -16,6 +19,9 @@ public record PetResponse(
         Integer age,
 
         @Schema(description = "Owner's name", example = "Natasha")
-        String ownerName
-) {
+        String ownerName,
+
+        @Schema(description = "Version of the pet, bumped on every change", example = "1")
+        Long version
+) implements PetRepresentation {
 }
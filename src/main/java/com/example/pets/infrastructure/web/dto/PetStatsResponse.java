@@ -0,0 +1,26 @@
+package com.example.pets.infrastructure.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+public record PetStatsResponse(
+        @Schema(description = "Number of pets", example = "42")
+        long totalPets,
+
+        @Schema(description = "Number of pets per species, lower-cased", example = "{\"cat\": 30, \"dog\": 12}")
+        Map<String, Long> petsBySpecies,
+
+        @Schema(description = "Number of pets per age in years", example = "{\"1\": 10, \"2\": 25}")
+        Map<Integer, Long> petsByAge,
+
+        @Schema(description = "Number of pets without an age", example = "7")
+        long petsWithoutAge,
+
+        @Schema(description = "Number of owners per number of pets owned", example = "{\"1\": 20, \"2\": 8}")
+        Map<Integer, Long> ownersByPetCount,
+
+        @Schema(description = "Number of pets without an owner", example = "6")
+        long petsWithoutOwner
+) {
+}
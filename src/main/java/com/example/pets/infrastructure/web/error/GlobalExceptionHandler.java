@@ -1,9 +1,13 @@
 package com.example.pets.infrastructure.web.error;
 
 import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
+import com.example.pets.infrastructure.web.idempotency.IdempotencyKeyReusedException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.Instant;
 import java.util.List;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -20,6 +25,18 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.NOT_FOUND, ex.getMessage(), req.getRequestURI(), details);
     }
 
+    @ExceptionHandler(PetVersionConflictException.class)
+    public ResponseEntity<ApiError> handleVersionConflict(PetVersionConflictException ex, HttpServletRequest req) {
+        List<String> details = List.of("Current version of pet " + ex.getPetId() + ": " + ex.getActualVersion());
+        return build(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), req.getRequestURI(), details);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex, HttpServletRequest req) {
+        List<String> details = List.of("Idempotency-Key: " + ex.getIdempotencyKey());
+        return build(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), req.getRequestURI(), details);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleBadRequest(IllegalArgumentException ex, HttpServletRequest req) {
         List<String> details = List.of(ex.getMessage());
@@ -57,7 +74,8 @@ public class GlobalExceptionHandler {
                 path,
                 details
         );
-        return ResponseEntity.status(status).body(body);
+        // errors are JSON whatever the client accepts for pets; ApiError has no Protobuf message
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
 
@@ -0,0 +1,14 @@
+package com.example.pets.infrastructure.web.idempotency;
+
+import lombok.Getter;
+
+@Getter
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency key was already used for a different request");
+        this.idempotencyKey = idempotencyKey;
+    }
+}
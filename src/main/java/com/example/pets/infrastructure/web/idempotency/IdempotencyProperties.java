@@ -0,0 +1,16 @@
+package com.example.pets.infrastructure.web.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maximumKeys how many idempotency keys are remembered; past it the least valuable keys are evicted
+ * @param timeToLive  how long the first response for a key is replayed to retries
+ */
+@ConfigurationProperties(prefix = "pets.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("100000") long maximumKeys,
+        @DefaultValue("24h") Duration timeToLive) {
+}
@@ -0,0 +1,114 @@
+package com.example.pets.infrastructure.web.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of the first successful request for each client and {@code Idempotency-Key} and replays it to
+ * that client's retries with the same key, without running the request again. Keys are scoped to the client, so two
+ * clients that pick the same key never see each other's results. The first request for a key claims it with a
+ * pending future in a single atomic insert, so concurrent duplicates wait for that one execution instead of starting
+ * their own.
+ * <p>
+ * The result is stored rather than the response, and each retry renders it for itself, so a retry that negotiates
+ * another media type gets the body and ETag for that type.
+ * <p>
+ * Only successes are remembered: when the first execution fails, its waiters see the same failure and the key is
+ * released, so a later retry runs the request again.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<ClientKey, CompletableFuture<StoredResult>> results;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    IdempotencyStore(IdempotencyProperties properties, Ticker ticker) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterWrite(properties.timeToLive())
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} for the first request from {@code client} with {@code key} and renders its result; later
+     * requests from the same client with the same key and an equal {@code request} get that result rendered again
+     * with {@value #REPLAYED_HEADER} set.
+     *
+     * @throws IdempotencyKeyReusedException when the client first used the key with a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> ResponseEntity<R> execute(String client, String key, Object request, Supplier<T> action,
+                                            Function<T, ResponseEntity<R>> render) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        ClientKey clientKey = new ClientKey(client, key);
+        CompletableFuture<StoredResult> claim = new CompletableFuture<>();
+        CompletableFuture<StoredResult> first = results.asMap().putIfAbsent(clientKey, claim);
+        if (first == null) {
+            return render.apply(run(clientKey, request, claim, action));
+        }
+        StoredResult stored = await(first);
+        if (!stored.request().equals(request)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        ResponseEntity<R> response = render.apply((T) stored.result());
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    long size() {
+        results.cleanUp();
+        return results.estimatedSize();
+    }
+
+    private <T> T run(ClientKey clientKey, Object request, CompletableFuture<StoredResult> claim, Supplier<T> action) {
+        try {
+            T result = action.get();
+            claim.complete(new StoredResult(request, result));
+            return result;
+        } catch (RuntimeException | Error ex) {
+            results.asMap().remove(clientKey, claim);
+            claim.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static StoredResult await(CompletableFuture<StoredResult> first) {
+        try {
+            return first.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record ClientKey(String client, String key) {
+    }
+
+    private record StoredResult(Object request, Object result) {
+    }
+}
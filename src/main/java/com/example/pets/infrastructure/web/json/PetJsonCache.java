@@ -0,0 +1,96 @@
+package com.example.pets.infrastructure.web.json;
+
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Serialized JSON of recently written pets, by id. An entry is only reused for a response equal to the one it was
+ * serialized from, so any change to a pet, including a delete and re-create under the same id, serializes it
+ * afresh and replaces the entry; no write path has to invalidate anything. Hot reads copy cached bytes to the output
+ * without touching Jackson.
+ */
+public class PetJsonCache implements MeterBinder {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final Cache<Long, Entry> entries;
+    // recorded by hand: Caffeine would count an entry for an older state of the pet as a hit
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+    private final ObjectWriter writer;
+
+    public PetJsonCache(ObjectMapper objectMapper, PetJsonCacheProperties properties) {
+        this.writer = objectMapper.writerFor(PetResponse.class);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .executor(Runnable::run)
+                .recordStats(() -> statsCounter)
+                .build();
+    }
+
+    public byte[] bytesOf(PetResponse pet) {
+        if (pet.id() == null) {
+            return serialize(pet);
+        }
+        Entry entry = entries.asMap().get(pet.id());
+        if (entry != null && entry.pet().equals(pet)) {
+            statsCounter.recordHits(1);
+            return entry.json();
+        }
+        statsCounter.recordMisses(1);
+        byte[] json = serialize(pet);
+        entries.put(pet.id(), new Entry(pet, json));
+        return json;
+    }
+
+    /**
+     * Writes {@code pets} as a JSON array, byte for byte what Jackson writes for the list.
+     */
+    public void writeArray(List<? extends PetResponse> pets, OutputStream out) throws IOException {
+        if (pets.isEmpty()) {
+            out.write(EMPTY_ARRAY);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < pets.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(bytesOf(pets.get(i)));
+        }
+        out.write(']');
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "pet-json");
+    }
+
+    CacheStats stats() {
+        return entries.stats();
+    }
+
+    private byte[] serialize(PetResponse pet) {
+        try {
+            return writer.writeValueAsBytes(pet);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize pet " + pet.id(), ex);
+        }
+    }
+
+    private record Entry(PetResponse pet, byte[] json) {
+    }
+}
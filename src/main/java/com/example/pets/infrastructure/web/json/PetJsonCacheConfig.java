@@ -0,0 +1,35 @@
+package com.example.pets.infrastructure.web.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "pets.json-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PetJsonCacheConfig {
+
+    @Bean
+    PetJsonCache petJsonCache(ObjectMapper objectMapper, PetJsonCacheProperties properties) {
+        return new PetJsonCache(objectMapper, properties);
+    }
+
+    /**
+     * Puts the cached pet converter first, so it answers application/json for pets before Jackson's converter does.
+     */
+    @Bean
+    WebMvcConfigurer petJsonCacheConfigurer(PetJsonCache petJsonCache, ObjectMapper objectMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(0, new PetJsonHttpMessageConverter(petJsonCache, objectMapper));
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.pets.infrastructure.web.json;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maximumSize how many pets' JSON is kept; past it the least valuable entries are evicted
+ */
+@ConfigurationProperties(prefix = "pets.json-cache")
+public record PetJsonCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maximumSize) {
+}
@@ -0,0 +1,91 @@
+package com.example.pets.infrastructure.web.json;
+
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link PetResponse} bodies and lists of them as application/json from {@link PetJsonCache}. Registered
+ * ahead of Jackson's converter, which still reads requests and writes every other body. Partial pets, whose JSON
+ * depends on the requested fields, are not cached and are written with Jackson here.
+ */
+class PetJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final PetJsonCache cache;
+    private final ObjectWriter writer;
+
+    PetJsonHttpMessageConverter(PetJsonCache cache, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.cache = cache;
+        // the container owns the response stream
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // lists are only recognised by their element type, through canWrite(Type, Class, MediaType)
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PetRepresentation.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (PetRepresentation.class.isAssignableFrom(resolved.toClass())) {
+            return true;
+        }
+        return List.class.isAssignableFrom(resolved.toClass())
+                && PetRepresentation.class.isAssignableFrom(resolved.asCollection().getGeneric(0).toClass());
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof PetResponse pet) {
+            byte[] json = cache.bytesOf(pet);
+            outputMessage.getHeaders().setContentLength(json.length);
+            outputMessage.getBody().write(json);
+            return;
+        }
+        if (body instanceof List<?> list && list.stream().allMatch(PetResponse.class::isInstance)) {
+            @SuppressWarnings("unchecked")
+            List<? extends PetResponse> pets = (List<? extends PetResponse>) list;
+            cache.writeArray(pets, outputMessage.getBody());
+            return;
+        }
+        writer.writeValue(outputMessage.getBody(), body);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pet responses are written only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pet responses are written only", inputMessage);
+    }
+}
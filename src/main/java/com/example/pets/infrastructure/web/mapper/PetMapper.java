@@ -1,9 +1,12 @@
 package com.example.pets.infrastructure.web.mapper;
 
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.infrastructure.web.dto.PetBatchUpdateRequest;
 import com.example.pets.infrastructure.web.dto.PetCreateRequest;
 import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
 import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.dto.PetStatsResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,11 +14,19 @@ import org.mapstruct.Mapping;
 public interface PetMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Pet toDomain(PetCreateRequest request);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Pet toDomain(PetUpdateRequest request);
 
+    @Mapping(target = "version", ignore = true)
+    Pet toDomain(PetBatchUpdateRequest request);
+
     PetResponse toResponse(Pet pet);
+
+    PetStatsResponse toResponse(PetStatistics statistics);
 }
 
 
@@ -0,0 +1,111 @@
+package com.example.pets.infrastructure.web.protobuf;
+
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
+import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads pet requests and writes pets and lists of pets as application/x-protobuf, using the messages declared in
+ * {@code proto/pets.proto}. Jackson maps the DTOs onto the messages by field name, so no classes are generated from
+ * the schema. A list is written as a {@code PetList} message, since a Protobuf payload cannot be a bare array.
+ */
+class PetProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+    static final String SCHEMA_LOCATION = "proto/pets.proto";
+
+    private final ObjectWriter petWriter;
+    private final ObjectWriter listWriter;
+    private final Map<Class<?>, ObjectReader> readers;
+
+    PetProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+        NativeProtobufSchema schema = loadSchema();
+        ProtobufMapper mapper = new ProtobufMapper();
+        // the container owns the response stream
+        ObjectWriter writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.petWriter = writer.with(schema.forType("PetResponse"));
+        this.listWriter = writer.with(schema.forType("PetList"));
+        this.readers = Map.of(
+                PetCreateRequest.class, mapper.readerFor(PetCreateRequest.class).with(schema.forType("PetCreateRequest")),
+                PetUpdateRequest.class, mapper.readerFor(PetUpdateRequest.class).with(schema.forType("PetUpdateRequest")));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PetRepresentation.class.isAssignableFrom(clazz) || readers.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return readers.containsKey(ResolvableType.forType(type).toClass()) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        if (PetRepresentation.class.isAssignableFrom(resolved.toClass())) {
+            return true;
+        }
+        return List.class.isAssignableFrom(resolved.toClass())
+                && PetRepresentation.class.isAssignableFrom(resolved.asCollection().getGeneric(0).toClass());
+    }
+
+    // lists are only recognised by their element type, which canWrite(Type, Class, MediaType) has already checked
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ResolvableType.forType(type).toClass(), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readers.get(clazz).readValue(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof List<?> pets) {
+            listWriter.writeValue(outputMessage.getBody(), new PetList(pets));
+        } else {
+            petWriter.writeValue(outputMessage.getBody(), body);
+        }
+    }
+
+    private static NativeProtobufSchema loadSchema() {
+        try (InputStream in = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+            return ProtobufSchemaLoader.std.loadNative(in, true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load " + SCHEMA_LOCATION, ex);
+        }
+    }
+
+    private record PetList(List<?> pets) {
+    }
+}
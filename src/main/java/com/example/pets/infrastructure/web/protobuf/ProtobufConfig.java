@@ -0,0 +1,28 @@
+package com.example.pets.infrastructure.web.protobuf;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProtobufConfig {
+
+    /**
+     * Puts the Protobuf converter last, after Spring MVC's JSON, Smile and CBOR converters, so a client that accepts
+     * anything still gets JSON.
+     */
+    @Bean
+    WebMvcConfigurer petProtobufConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new PetProtobufHttpMessageConverter());
+            }
+        };
+    }
+}
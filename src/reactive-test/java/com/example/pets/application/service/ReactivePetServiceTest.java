@@ -0,0 +1,115 @@
+package com.example.pets.application.service;
+
+import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.ports.PetChangeFeed;
+import com.example.pets.domain.ports.ReactivePetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.function.UnaryOperator;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactivePetServiceTest {
+
+    @Mock
+    private ReactivePetRepository petRepository;
+
+    @Mock
+    private PetChangeFeed changeFeed;
+
+    @InjectMocks
+    private ReactivePetService petService;
+
+    private Pet originalDog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        originalDog = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+    }
+
+    @Test
+    void updatePet_existingPet_emitsUpdatedPetAndPublishesChange() {
+        //arrange
+        stubAtomicUpdateOf(originalDog);
+
+        //act
+        Mono<Pet> result = petService.updatePet(1L, Pet.builder().name("Koki").species("Dog").build(), 1L);
+
+        //assert
+        StepVerifier.create(result)
+                .expectNextMatches(pet -> pet.getName().equals("Koki") && pet.getAge() == 3)
+                .verifyComplete();
+        verify(changeFeed).publish(eq(PetChange.Type.UPDATED), eq(1L), eq(1L), any(Pet.class));
+    }
+
+    @Test
+    void updatePet_staleVersionOrMissingPet_signalsTheServletApiExceptions() {
+        //arrange
+        stubAtomicUpdateOf(originalDog);
+        when(petRepository.update(eq(2L), any())).thenReturn(Mono.empty());
+
+        //act + assert
+        StepVerifier.create(petService.updatePet(1L, originalDog, 7L))
+                .expectError(PetVersionConflictException.class)
+                .verify();
+        StepVerifier.create(petService.updatePet(2L, originalDog, null))
+                .expectError(PetNotFoundException.class)
+                .verify();
+        verifyNoInteractions(changeFeed);
+    }
+
+    @Test
+    void deletePet_missingPet_signalsPetNotFoundWithoutPublishing() {
+        //arrange
+        when(petRepository.deleteById(1L)).thenReturn(Mono.empty());
+
+        //act + assert
+        StepVerifier.create(petService.deletePet(1L))
+                .expectError(PetNotFoundException.class)
+                .verify();
+        verifyNoInteractions(changeFeed);
+    }
+
+    @Test
+    void getPetPage_moreRowsThanLimit_returnsLimitAndNextCursor() {
+        //arrange
+        Pet cat = new Pet(2L, "Bini", "Cat", 2, "Natasha", 1L);
+        Pet rabbit = new Pet(3L, "Zeko", "Rabbit", 1, "Natasha", 1L);
+        when(petRepository.findPage(null, 3)).thenReturn(Flux.just(originalDog, cat, rabbit));
+
+        //act + assert
+        StepVerifier.create(petService.getPetPage(null, 2))
+                .expectNextMatches(page -> page.items().size() == 2 && page.nextAfterId() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void searchByName_blankQuery_signalsIllegalArgumentWithoutQuerying() {
+        //act + assert
+        StepVerifier.create(petService.searchByName(" ", 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verify(petRepository, never()).searchByName(any(), anyInt());
+    }
+
+    private void stubAtomicUpdateOf(Pet existing) {
+        when(petRepository.update(eq(existing.getId()), any())).thenAnswer(inv -> {
+            UnaryOperator<Pet> updater = inv.getArgument(1);
+            return Mono.fromSupplier(() -> updater.apply(existing));
+        });
+    }
+}
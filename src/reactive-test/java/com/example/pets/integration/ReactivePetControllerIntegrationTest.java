@@ -0,0 +1,119 @@
+package com.example.pets.integration;
+
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the web application type is chosen before profile properties are read, so the test sets it as well
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles({"inmemory", "reactive"})
+class ReactivePetControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void crud_reactiveProfile_matchesTheServletApi() {
+        EntityExchangeResult<PetResponse> createResult = webTestClient.post().uri("/api/v1/pets")
+                .bodyValue(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PetResponse.class).returnResult();
+        PetResponse created = createResult.getResponseBody();
+        String createdETag = createResult.getResponseHeaders().getETag();
+        assertThat(created).isNotNull();
+        assertThat(createdETag).isEqualTo("\"1-json\"");
+        String petUri = "/api/v1/pets/" + created.id();
+
+        webTestClient.get().uri(petUri).header(HttpHeaders.IF_NONE_MATCH, createdETag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.put().uri(petUri).header(HttpHeaders.IF_MATCH, createdETag)
+                .bodyValue(new PetUpdateRequest("Mici", "Cat", 3, "Natasha"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Mici").jsonPath("$.version").isEqualTo(2);
+        webTestClient.put().uri(petUri).header(HttpHeaders.IF_MATCH, createdETag)
+                .bodyValue(new PetUpdateRequest("Koki", "Cat", 3, "Natasha"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.delete().uri(petUri).exchange().expectStatus().isNoContent();
+        webTestClient.get().uri(petUri)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.status").isEqualTo(404).jsonPath("$.path").isEqualTo(petUri);
+    }
+
+    @Test
+    void errors_reactiveProfile_useTheApiErrorFormat() {
+        webTestClient.post().uri("/api/v1/pets")
+                .bodyValue(new PetCreateRequest("", "Cat", 2, "Natasha"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Validation failed");
+        webTestClient.get().uri("/api/v1/pets/search?q= ")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details[0]").isEqualTo("Search query must not be blank");
+        webTestClient.get().uri("/api/v1/pets?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listAndExport_manyPets_streamEveryPetAndPageWithCursor() {
+        for (char letter = 'a'; letter <= 'z'; letter++) {
+            webTestClient.post().uri("/api/v1/pets")
+                    .bodyValue(new PetCreateRequest("Pet" + letter, "Dog", letter - 'a', "Owner"))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        webTestClient.get().uri("/api/v1/pets?limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("X-Next-Cursor")
+                .expectBodyList(PetResponse.class).hasSize(10);
+        webTestClient.get().uri("/api/v1/pets?limit=2&fields=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"name\":\"Peta\"},{\"name\":\"Petb\"}]", JsonCompareMode.STRICT);
+
+        Flux<PetResponse> export = webTestClient.get().uri("/api/v1/pets/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PetResponse.class).getResponseBody();
+        StepVerifier.create(export.filter(pet -> pet.name().startsWith("Pet")).count())
+                .expectNext(26L)
+                .verifyComplete();
+
+        String eTag = webTestClient.get().uri("/api/v1/pets?species=dog")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PetResponse.class).getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/v1/pets?species=dog").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/api/v1/pets?species=dog&fields=id").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.pets.application.port.in;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.domain.model.PetStatistics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link PetUseCase}. Failures are signalled as errors with the same exceptions.
+ */
+public interface ReactivePetUseCase {
+
+    Mono<Pet> createPet(Pet pet);
+
+    Mono<Pet> updatePet(Long id, Pet pet, Long expectedVersion);
+
+    Mono<Pet> getPet(Long id);
+
+    Mono<Void> deletePet(Long id);
+
+    /**
+     * Emits every pet in ascending id order as fast as the subscriber requests them.
+     */
+    Flux<Pet> getAllPets();
+
+    Mono<PetPage> getPetPage(Long afterId, int limit);
+
+    Flux<Pet> getPetsMatching(String species, String ownerName);
+
+    Flux<Pet> getPetsByAge(Integer minAge, Integer maxAge, boolean oldestFirst, int limit);
+
+    Flux<Pet> searchByName(String query, int limit);
+
+    Mono<PetStatistics> getStatistics();
+
+    long getModificationCount();
+}
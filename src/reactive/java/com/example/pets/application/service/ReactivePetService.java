@@ -0,0 +1,111 @@
+package com.example.pets.application.service;
+
+import com.example.pets.application.port.in.ReactivePetUseCase;
+import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetChangeFeed;
+import com.example.pets.domain.ports.ReactivePetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactivePetService implements ReactivePetUseCase {
+
+    private final ReactivePetRepository petRepository;
+    private final PetChangeFeed changeFeed;
+
+    @Override
+    public Mono<Pet> createPet(Pet pet) {
+        return petRepository.save(pet)
+                .doOnNext(created -> PetService.publish(changeFeed, PetChange.Type.CREATED, created));
+    }
+
+    @Override
+    public Mono<Pet> updatePet(Long id, Pet petUpdates, Long expectedVersion) {
+        return petRepository.update(id, existing -> {
+                    if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                        throw new PetVersionConflictException(id, expectedVersion, existing.getVersion());
+                    }
+                    return PetService.applyUpdates(existing, petUpdates);
+                })
+                .switchIfEmpty(Mono.error(() -> new PetNotFoundException(id)))
+                .doOnNext(updated -> PetService.publish(changeFeed, PetChange.Type.UPDATED, updated));
+    }
+
+    @Override
+    public Mono<Pet> getPet(Long id) {
+        return petRepository.findById(id).switchIfEmpty(Mono.error(() -> new PetNotFoundException(id)));
+    }
+
+    @Override
+    public Mono<Void> deletePet(Long id) {
+        return petRepository.deleteById(id)
+                .switchIfEmpty(Mono.error(() -> new PetNotFoundException(id)))
+                .doOnNext(deleted -> PetService.publish(changeFeed, PetChange.Type.DELETED, deleted))
+                .then();
+    }
+
+    @Override
+    public Flux<Pet> getAllPets() {
+        return petRepository.findAll();
+    }
+
+    @Override
+    public Mono<PetPage> getPetPage(Long afterId, int limit) {
+        // one extra row tells us whether another page exists without a count query
+        return petRepository.findPage(afterId, limit + 1).collectList().map(pets -> {
+            if (pets.size() <= limit) {
+                return new PetPage(pets, null);
+            }
+            return new PetPage(pets.subList(0, limit), pets.get(limit - 1).getId());
+        });
+    }
+
+    @Override
+    public Flux<Pet> getPetsMatching(String species, String ownerName) {
+        if (ownerName != null) {
+            // an owner has far fewer pets than a species, so narrow by owner and filter the rest
+            Flux<Pet> pets = petRepository.findByOwner(ownerName);
+            return species == null ? pets : pets.filter(pet -> pet.getSpecies().equalsIgnoreCase(species));
+        }
+        if (species != null) {
+            return petRepository.findBySpecies(species);
+        }
+        return petRepository.findAll();
+    }
+
+    @Override
+    public Flux<Pet> getPetsByAge(Integer minAge, Integer maxAge, boolean oldestFirst, int limit) {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            return Flux.error(new IllegalArgumentException("minAge must not be greater than maxAge"));
+        }
+        return petRepository.findByAgeRange(minAge, maxAge, oldestFirst, limit);
+    }
+
+    @Override
+    public Flux<Pet> searchByName(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return Flux.error(new IllegalArgumentException("Search query must not be blank"));
+        }
+        return petRepository.searchByName(query.trim(), limit);
+    }
+
+    @Override
+    public Mono<PetStatistics> getStatistics() {
+        return petRepository.statistics();
+    }
+
+    @Override
+    public long getModificationCount() {
+        return petRepository.modificationCount();
+    }
+}
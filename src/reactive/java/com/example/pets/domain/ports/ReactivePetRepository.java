@@ -0,0 +1,50 @@
+package com.example.pets.domain.ports;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Non-blocking counterpart of {@link PetRepository} for the reactive API. Implementations must never block the
+ * subscribing thread; the ordering, versioning and atomicity rules are those of the matching {@link PetRepository}
+ * methods.
+ */
+public interface ReactivePetRepository {
+
+    Mono<Pet> save(Pet pet);
+
+    /**
+     * Atomically replaces the pet with {@code updater}'s result and bumps its version. Completes empty when there is
+     * no such pet and with the updater's exception when it throws.
+     */
+    Mono<Pet> update(Long id, UnaryOperator<Pet> updater);
+
+    Mono<Pet> findById(Long id);
+
+    /**
+     * Emits every pet in ascending id order, reading them only as fast as the subscriber requests them.
+     */
+    Flux<Pet> findAll();
+
+    Flux<Pet> findPage(Long afterId, int limit);
+
+    Flux<Pet> findBySpecies(String species);
+
+    Flux<Pet> findByOwner(String ownerName);
+
+    Flux<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit);
+
+    Flux<Pet> searchByName(String query, int limit);
+
+    Mono<PetStatistics> statistics();
+
+    /**
+     * Emits the pet as it was when deleted, or completes empty if it did not exist.
+     */
+    Mono<Pet> deleteById(Long id);
+
+    long modificationCount();
+}
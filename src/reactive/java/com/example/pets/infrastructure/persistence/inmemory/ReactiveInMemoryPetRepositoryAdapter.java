@@ -0,0 +1,90 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetRepository;
+import com.example.pets.domain.ports.ReactivePetRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Exposes the in-memory repository reactively. Every in-memory operation finishes without waiting on I/O or on
+ * other requests for longer than a per-pet lock is held, so it runs directly on the subscribing event loop thread
+ * instead of being shifted to a worker pool. Calls go through the {@link PetRepository} bean, so the cache and
+ * metrics decorators still apply; the durable decorator waits for fsync and is therefore not supported.
+ */
+@Repository
+@Profile("reactive & inmemory & !durable")
+public class ReactiveInMemoryPetRepositoryAdapter implements ReactivePetRepository {
+
+    private final PetRepository repository;
+
+    public ReactiveInMemoryPetRepositoryAdapter(PetRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<Pet> save(Pet pet) {
+        return Mono.fromSupplier(() -> repository.save(pet));
+    }
+
+    @Override
+    public Mono<Pet> update(Long id, UnaryOperator<Pet> updater) {
+        return Mono.fromCallable(() -> repository.update(id, updater)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<Pet> findById(Long id) {
+        return Mono.fromCallable(() -> repository.findById(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<Pet> findAll() {
+        // the stream walks the id index lazily, one pet per requested element, and is closed on cancel
+        return Flux.fromStream(repository::streamAll);
+    }
+
+    @Override
+    public Flux<Pet> findPage(Long afterId, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(repository.findPage(afterId, limit)));
+    }
+
+    @Override
+    public Flux<Pet> findBySpecies(String species) {
+        return Flux.defer(() -> Flux.fromIterable(repository.findBySpecies(species)));
+    }
+
+    @Override
+    public Flux<Pet> findByOwner(String ownerName) {
+        return Flux.defer(() -> Flux.fromIterable(repository.findByOwner(ownerName)));
+    }
+
+    @Override
+    public Flux<Pet> findByAgeRange(Integer minAge, Integer maxAge, boolean descending, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(repository.findByAgeRange(minAge, maxAge, descending, limit)));
+    }
+
+    @Override
+    public Flux<Pet> searchByName(String query, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(repository.searchByName(query, limit)));
+    }
+
+    @Override
+    public Mono<PetStatistics> statistics() {
+        return Mono.fromSupplier(repository::statistics);
+    }
+
+    @Override
+    public Mono<Pet> deleteById(Long id) {
+        return Mono.fromSupplier(() -> repository.deleteById(id).orElse(null));
+    }
+
+    @Override
+    public long modificationCount() {
+        return repository.modificationCount();
+    }
+}
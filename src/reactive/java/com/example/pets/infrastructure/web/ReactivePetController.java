@@ -0,0 +1,208 @@
+package com.example.pets.infrastructure.web;
+
+import com.example.pets.application.port.in.ReactivePetUseCase;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetFields;
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.example.pets.infrastructure.web.dto.PetStatsResponse;
+import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.example.pets.infrastructure.web.mapper.PetMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+import static com.example.pets.infrastructure.web.PetController.DEFAULT_PAGE_SIZE;
+import static com.example.pets.infrastructure.web.PetController.DEFAULT_SEARCH_LIMIT;
+import static com.example.pets.infrastructure.web.PetController.FIELDS_DESCRIPTION;
+import static com.example.pets.infrastructure.web.PetController.MAX_PAGE_SIZE;
+import static com.example.pets.infrastructure.web.PetController.NEXT_CURSOR_HEADER;
+
+/**
+ * The routes of {@link PetController} and the export of {@link PetExportController} on WebFlux, active with the
+ * reactive Spring profile. Lists and exports are written as the repository emits pets, at the pace the connection
+ * accepts them, so neither holds a thread nor the whole result while a client reads.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestController
+@RequestMapping("/api/v1/pets")
+@RequiredArgsConstructor
+@Validated
+public class ReactivePetController {
+
+    private final ReactivePetUseCase petUseCase;
+    private final PetMapper petMapper;
+
+    @Operation(summary = "Create a new pet", description = "Creates a pet and returns the created pet details")
+    @PostMapping
+    public Mono<ResponseEntity<PetResponse>> createPet(@Valid @RequestBody PetCreateRequest request,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return petUseCase.createPet(petMapper.toDomain(request))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(PetETag.of(created.getVersion(), accept, PetFields.ALL))
+                        .body(petMapper.toResponse(created)));
+    }
+
+    @Operation(summary = "Update a pet", description = "Updates an existing pet by its ID. "
+            + "With If-Match the update only applies while the pet's ETag still matches, otherwise 412 is returned")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PetResponse>> updatePet(@PathVariable Long id, @Valid @RequestBody PetUpdateRequest request,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return petUseCase.updatePet(id, petMapper.toDomain(request), PetETag.expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok()
+                        .eTag(PetETag.of(updated.getVersion(), accept, PetFields.ALL))
+                        .body(petMapper.toResponse(updated)));
+    }
+
+    @Operation(summary = "Get a pet by ID", description = "Returns the details of a pet by its ID. "
+            + "Answers 304 without a body when If-None-Match holds the pet's current ETag. " + FIELDS_DESCRIPTION)
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PetRepresentation>> getPet(@PathVariable Long id,
+                                                          @RequestParam(required = false) String fields,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                          ServerWebExchange exchange) {
+        PetFields selected = PetFields.parse(fields);
+        return petUseCase.getPet(id).flatMap(pet -> {
+            String eTag = PetETag.of(pet.getVersion(), accept, selected);
+            // an empty result leaves the 304 status and ETag header set by checkNotModified
+            return exchange.checkNotModified(eTag) ? Mono.empty()
+                    : Mono.just(ResponseEntity.ok().eTag(eTag).body(selected.select(petMapper.toResponse(pet))));
+        });
+    }
+
+    @Operation(summary = "Search pets by name", description = "Returns up to limit pets whose name or owner name "
+            + "matches q case-insensitively: names before owner names, words starting with q before words one typo away. "
+            + FIELDS_DESCRIPTION)
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<PetRepresentation>>> searchPets(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "" + DEFAULT_SEARCH_LIMIT) @Min(1) @Max(MAX_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        PetFields selected = PetFields.parse(fields);
+        return listResponse(exchange, selected, () -> petUseCase.searchByName(q, limit));
+    }
+
+    @Operation(summary = "Pet statistics", description = "Returns pet counts per species and age and the distribution of "
+            + "pets per owner. The counts are kept up to date on every write, so reading them does not scan the pets")
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<PetStatsResponse>> getStatistics(ServerWebExchange exchange) {
+        String eTag = listETag(exchange, PetFields.ALL);
+        if (exchange.checkNotModified(eTag)) {
+            return Mono.empty();
+        }
+        return petUseCase.getStatistics()
+                .map(statistics -> ResponseEntity.ok().eTag(eTag).body(petMapper.toResponse(statistics)));
+    }
+
+    @Operation(summary = "Delete a pet", description = "Deletes a pet by its ID")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePet(@PathVariable Long id) {
+        return petUseCase.deletePet(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @Operation(summary = "List pets", description = "Returns all pets, or one page of pets ordered by ID when limit or after is given. "
+            + "The cursor for the next page is returned in the X-Next-Cursor and Link headers. "
+            + "species and owner filter the list case-insensitively. "
+            + "minAge, maxAge and sort=age (youngest first) or sort=-age (oldest first) query the age index, "
+            + "with limit capping the number of results. Filters cannot be combined with each other or with the cursor. "
+            + "The ETag changes whenever any pet is written; If-None-Match with the current one answers 304 without a body. "
+            + FIELDS_DESCRIPTION)
+    @GetMapping
+    public Mono<ResponseEntity<Flux<PetRepresentation>>> getAllPets(
+            @RequestParam(required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) @Min(0) Integer minAge,
+            @RequestParam(required = false) @Min(0) Integer maxAge,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        PetFields selected = PetFields.parse(fields);
+        boolean attributeFilter = species != null || owner != null;
+        boolean ageQuery = minAge != null || maxAge != null || sort != null;
+        PetController.checkListQuery(attributeFilter, ageQuery, limit, after);
+
+        if (attributeFilter) {
+            return listResponse(exchange, selected, () -> petUseCase.getPetsMatching(species, owner));
+        }
+        if (ageQuery) {
+            boolean oldestFirst = PetController.isOldestFirst(sort);
+            return listResponse(exchange, selected, () -> petUseCase.getPetsByAge(minAge, maxAge, oldestFirst,
+                    limit != null ? limit : Integer.MAX_VALUE));
+        }
+        if (limit == null && after == null) {
+            return listResponse(exchange, selected, petUseCase::getAllPets);
+        }
+        return getPetPage(limit, after, selected, exchange);
+    }
+
+    @Operation(summary = "Export all pets",
+            description = "Streams every pet as newline-delimited JSON (application/x-ndjson, default) "
+                    + "or as a JSON array (application/json). " + FIELDS_DESCRIPTION)
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<PetRepresentation> exportPets(@RequestParam(required = false) String fields) {
+        PetFields selected = PetFields.parse(fields);
+        return petUseCase.getAllPets().map(pet -> selected.select(petMapper.toResponse(pet)));
+    }
+
+    private Mono<ResponseEntity<Flux<PetRepresentation>>> getPetPage(Integer limit, String after, PetFields fields,
+                                                                     ServerWebExchange exchange) {
+        // read before the query: a write racing it can only make the tag older than the body, never newer
+        String eTag = listETag(exchange, fields);
+        if (exchange.checkNotModified(eTag)) {
+            return Mono.empty();
+        }
+        Long afterId = PageCursor.decode(after);
+        return petUseCase.getPetPage(afterId, limit != null ? limit : DEFAULT_PAGE_SIZE).map(page -> {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(eTag);
+            if (page.hasNext()) {
+                String nextCursor = PageCursor.encode(page.nextAfterId());
+                String nextLink = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                        .replaceQueryParam("after", nextCursor)
+                        .toUriString();
+                builder.header(NEXT_CURSOR_HEADER, nextCursor)
+                        .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+            }
+            return builder.body(toResponses(page, fields));
+        });
+    }
+
+    private Mono<ResponseEntity<Flux<PetRepresentation>>> listResponse(ServerWebExchange exchange, PetFields fields,
+                                                                       Supplier<Flux<Pet>> pets) {
+        // read before the query: a write racing it can only make the tag older than the body, never newer
+        String eTag = listETag(exchange, fields);
+        if (exchange.checkNotModified(eTag)) {
+            return Mono.empty();
+        }
+        return Mono.just(ResponseEntity.ok().eTag(eTag).body(pets.get().map(pet -> fields.select(petMapper.toResponse(pet)))));
+    }
+
+    private String listETag(ServerWebExchange exchange, PetFields fields) {
+        String accept = String.join(",", exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT));
+        return PetETag.ofList(petUseCase.getModificationCount(), accept, fields);
+    }
+
+    private Flux<PetRepresentation> toResponses(PetPage page, PetFields fields) {
+        return Flux.fromIterable(page.items()).map(pet -> fields.select(petMapper.toResponse(pet)));
+    }
+}
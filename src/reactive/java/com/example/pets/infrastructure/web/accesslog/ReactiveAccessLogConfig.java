@@ -0,0 +1,17 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(prefix = "pets.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveAccessLogConfig {
+
+    @Bean
+    ReactiveAccessLogFilter reactiveAccessLogFilter(AccessLog accessLog) {
+        return new ReactiveAccessLogFilter(accessLog);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records every WebFlux request in the {@link AccessLog} when its response completes, fails or is cancelled.
+ */
+class ReactiveAccessLogFilter implements WebFilter, Ordered {
+
+    private final AccessLog accessLog;
+
+    ReactiveAccessLogFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            int code = status != null && signal != SignalType.ON_ERROR ? status.value() : 500;
+            accessLog.record(request.getMethod().name(), request.getPath().value(), code, System.nanoTime() - start);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.pets.infrastructure.web.error;
+
+import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link GlobalExceptionHandler} for the reactive API: the same statuses and {@link ApiError} bodies.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(PetNotFoundException.class)
+    public ResponseEntity<ApiError> handleNotFound(PetNotFoundException ex, ServerHttpRequest req) {
+        List<String> details = List.of("Missing Pet ID: " + ex.getPetId());
+        return build(HttpStatus.NOT_FOUND, ex.getMessage(), req, details);
+    }
+
+    @ExceptionHandler(PetVersionConflictException.class)
+    public ResponseEntity<ApiError> handleVersionConflict(PetVersionConflictException ex, ServerHttpRequest req) {
+        List<String> details = List.of("Current version of pet " + ex.getPetId() + ": " + ex.getActualVersion());
+        return build(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), req, details);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiError> handleBadRequest(IllegalArgumentException ex, ServerHttpRequest req) {
+        List<String> details = List.of(ex.getMessage());
+        return build(HttpStatus.BAD_REQUEST, "Invalid request", req, details);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiError> handleValidation(WebExchangeBindException ex, ServerHttpRequest req) {
+        List<String> details = ex.getBindingResult().getFieldErrors().stream()
+                .map(f -> f.getField() + ": " + f.getDefaultMessage())
+                .toList();
+        return build(HttpStatus.BAD_REQUEST, "Validation failed", req, details);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiError> handleConstraint(ConstraintViolationException ex, ServerHttpRequest req) {
+        List<String> details = ex.getConstraintViolations().stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .toList();
+        return build(HttpStatus.BAD_REQUEST, "Validation failed", req, details);
+    }
+
+    // malformed JSON, missing parameters and ids that are not numbers
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiError> handleInput(ServerWebInputException ex, ServerHttpRequest req) {
+        List<String> details = List.of(String.valueOf(ex.getReason()));
+        return build(HttpStatus.BAD_REQUEST, "Invalid request", req, details);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiError> handleGeneric(Exception ex, ServerHttpRequest req) {
+        List<String> details = List.of(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        return build(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred", req, details);
+    }
+
+    private ResponseEntity<ApiError> build(HttpStatus status, String message, ServerHttpRequest req, List<String> details) {
+        ApiError body = new ApiError(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                req.getPath().value(),
+                details
+        );
+        return ResponseEntity.status(status).body(body);
+    }
+}
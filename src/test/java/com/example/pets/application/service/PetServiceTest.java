@@ -1,7 +1,11 @@
 package com.example.pets.application.service;
 
 import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.exceptions.PetVersionConflictException;
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.domain.ports.PetChangeFeed;
 import com.example.pets.domain.ports.PetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,12 +13,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class PetServiceTest {
@@ -22,6 +30,9 @@ class PetServiceTest {
     @Mock
     private PetRepository petRepository;
 
+    @Mock
+    private PetChangeFeed changeFeed;
+
     @InjectMocks
     private PetService petService;
 
@@ -33,9 +44,9 @@ class PetServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        originalDog = new Pet(1L, "Toto", "Dog", 3, "Natasha");
-        updatedDog = new Pet(1L, "Koki", "Dog", 4, "Natasha");
-        originalCat = new Pet(2L, "Bini", "Cat", 2, "Natasha");
+        originalDog = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+        updatedDog = new Pet(1L, "Koki", "Dog", 4, "Natasha", 2L);
+        originalCat = new Pet(2L, "Bini", "Cat", 2, "Natasha", 1L);
     }
 
     @Test
@@ -49,6 +60,7 @@ class PetServiceTest {
         //assert
         assertThat(result).isEqualTo(originalDog);
         verify(petRepository).save(originalDog);
+        verify(changeFeed).publish(PetChange.Type.CREATED, originalDog.getId(), 1L, originalDog);
     }
 
     @Test
@@ -78,44 +90,56 @@ class PetServiceTest {
     @Test
     void updatePet_existingPet_returnsUpdatedPet() {
         //arrange
-        when(petRepository.findById(1L)).thenReturn(Optional.of(originalDog));
-        when(petRepository.save(any(Pet.class))).thenReturn(updatedDog);
+        stubAtomicUpdateOf(originalDog);
 
         //act
-        Pet result = petService.updatePet(1L, updatedDog);
+        Pet result = petService.updatePet(1L, updatedDog, null);
 
         //assert
-        assertThat(result).isEqualTo(updatedDog);
-        verify(petRepository).save(any(Pet.class));
+        assertThat(result.getName()).isEqualTo("Koki");
+        assertThat(result.getAge()).isEqualTo(4);
+        verify(petRepository, never()).save(any(Pet.class));
+    }
+
+    @Test
+    void updatePet_staleExpectedVersion_throwsPetVersionConflictException() {
+        //arrange
+        stubAtomicUpdateOf(originalDog.withVersion(3L));
+
+        //act & assert
+        assertThatThrownBy(() -> petService.updatePet(1L, updatedDog, 2L))
+                .isInstanceOf(PetVersionConflictException.class)
+                .hasMessageContaining("version 3");
     }
 
     @Test
     void updatePet_nonExistingPet_throwsPetNotFoundException() {
         //arrange
-        when(petRepository.findById(1L)).thenReturn(Optional.empty());
+        when(petRepository.update(eq(1L), any())).thenReturn(Optional.empty());
 
         //act & assert
-        assertThatThrownBy(() -> petService.updatePet(1L, updatedDog))
+        assertThatThrownBy(() -> petService.updatePet(1L, updatedDog, null))
                 .isInstanceOf(PetNotFoundException.class)
                 .hasMessageContaining("1");
     }
 
     @Test
-    void deletePet_existingPet_callsDeleteById() {
+    void deletePet_existingPet_publishesTheDeleteOnePastTheDeletedVersion() {
         //arrange
-        when(petRepository.existsById(1L)).thenReturn(true);
+        when(petRepository.deleteById(1L)).thenReturn(Optional.of(updatedDog));
 
         //act
         petService.deletePet(1L);
 
         //assert
         verify(petRepository).deleteById(1L);
+        verify(changeFeed).publish(PetChange.Type.DELETED, 1L, 3L, null);
     }
 
     @Test
     void deletePet_nonExistingPet_throwsPetNotFoundException() {
         //arrange
-        when(petRepository.existsById(1L)).thenReturn(false);
+        when(petRepository.deleteById(1L)).thenReturn(Optional.empty());
 
         //act & assert
         assertThatThrownBy(() -> petService.deletePet(1L))
@@ -135,4 +159,104 @@ class PetServiceTest {
         assertThat(result).containsExactly(originalDog, originalCat);
         verify(petRepository).findAll();
     }
+
+    @Test
+    void getPetPage_moreRowsThanLimit_returnsPageWithNextCursor() {
+        //arrange
+        when(petRepository.findPage(null, 2)).thenReturn(List.of(originalDog, originalCat));
+
+        //act
+        PetPage result = petService.getPetPage(null, 1);
+
+        //assert
+        assertThat(result.items()).containsExactly(originalDog);
+        assertThat(result.nextAfterId()).isEqualTo(1L);
+    }
+
+    @Test
+    void getPetPage_lastPage_returnsPageWithoutNextCursor() {
+        //arrange
+        when(petRepository.findPage(1L, 3)).thenReturn(List.of(originalCat));
+
+        //act
+        PetPage result = petService.getPetPage(1L, 2);
+
+        //assert
+        assertThat(result.items()).containsExactly(originalCat);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void getPetsMatching_speciesAndOwner_narrowsByOwnerAndFiltersSpecies() {
+        //arrange
+        when(petRepository.findByOwner("Natasha")).thenReturn(List.of(originalDog, originalCat));
+
+        //act
+        List<Pet> result = petService.getPetsMatching("cat", "Natasha");
+
+        //assert
+        assertThat(result).containsExactly(originalCat);
+        verify(petRepository, never()).findBySpecies(any());
+    }
+
+    @Test
+    void getPetsMatching_speciesOnly_usesSpeciesIndex() {
+        //arrange
+        when(petRepository.findBySpecies("Dog")).thenReturn(List.of(originalDog));
+
+        //act
+        List<Pet> result = petService.getPetsMatching("Dog", null);
+
+        //assert
+        assertThat(result).containsExactly(originalDog);
+    }
+
+    @Test
+    void getPetsByAge_invertedRange_throwsIllegalArgumentException() {
+        //act & assert
+        assertThatThrownBy(() -> petService.getPetsByAge(5, 2, false, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(petRepository, never()).findByAgeRange(any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void searchByName_blankQuery_throwsIllegalArgumentException() {
+        //act & assert
+        assertThatThrownBy(() -> petService.searchByName("  ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(petRepository, never()).searchByName(any(), anyInt());
+    }
+
+    @Test
+    void updatePets_oneMissingId_updatesExistingPetsOnly() {
+        //arrange
+        Pet catUpdates = new Pet(null, "Mici", "Cat", 3, "Natasha");
+        Map<Long, Pet> existing = Map.of(1L, originalDog, 2L, originalCat);
+        when(petRepository.updateAll(any())).thenAnswer(inv -> {
+            Map<Long, UnaryOperator<Pet>> updaters = inv.getArgument(0);
+            Map<Long, Pet> updated = new HashMap<>();
+            updaters.forEach((id, updater) -> {
+                if (existing.containsKey(id)) {
+                    updated.put(id, updater.apply(existing.get(id)));
+                }
+            });
+            return updated;
+        });
+
+        //act
+        Map<Long, Pet> result = petService.updatePets(Map.of(1L, updatedDog, 2L, catUpdates, 9L, updatedDog));
+
+        //assert
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(1L).getName()).isEqualTo("Koki");
+        assertThat(result.get(2L).getName()).isEqualTo("Mici");
+        assertThat(result.get(2L).getAge()).isEqualTo(3);
+    }
+
+    private void stubAtomicUpdateOf(Pet existing) {
+        when(petRepository.update(eq(existing.getId()), any())).thenAnswer(inv -> {
+            UnaryOperator<Pet> updater = inv.getArgument(1);
+            return Optional.of(updater.apply(existing));
+        });
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.pets.infrastructure.changes;
+
+import com.example.pets.domain.exceptions.ChangeFeedGapException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferPetChangeFeedTest {
+
+    private final Pet toto = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+
+    @Test
+    void readAfter_publishedChanges_returnsThemInOffsetOrderFromTheGivenOffset() {
+        //arrange
+        RingBufferPetChangeFeed feed = new RingBufferPetChangeFeed(new ChangeFeedProperties(8, 1, Duration.ofSeconds(1)));
+        feed.publish(PetChange.Type.CREATED, 1L, 1L, toto);
+        feed.publish(PetChange.Type.UPDATED, 1L, 2L, toto.withVersion(2L));
+        feed.publish(PetChange.Type.DELETED, 1L, 3L, null);
+
+        //act
+        List<PetChange> all = feed.readAfter(0, 10);
+        List<PetChange> tail = feed.readAfter(1, 1);
+
+        //assert
+        assertThat(all).extracting(PetChange::offset).containsExactly(1L, 2L, 3L);
+        assertThat(all).extracting(PetChange::type)
+                .containsExactly(PetChange.Type.CREATED, PetChange.Type.UPDATED, PetChange.Type.DELETED);
+        assertThat(tail).extracting(PetChange::offset).containsExactly(2L);
+        assertThat(feed.lastOffset()).isEqualTo(3);
+    }
+
+    @Test
+    void readAfter_readerOverrunByWriters_throwsChangeFeedGapException() {
+        //arrange
+        RingBufferPetChangeFeed feed = new RingBufferPetChangeFeed(new ChangeFeedProperties(4, 1, Duration.ofSeconds(1)));
+        for (long id = 1; id <= 10; id++) {
+            feed.publish(PetChange.Type.CREATED, id, 1L, toto);
+        }
+
+        //act + assert
+        assertThatThrownBy(() -> feed.readAfter(2, 10))
+                .isInstanceOf(ChangeFeedGapException.class)
+                .extracting("oldestOffset").isEqualTo(7L);
+        assertThat(feed.readAfter(6, 10)).extracting(PetChange::offset).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void awaitAfter_changePublishedWhileWaiting_returnsItBeforeTheTimeout() throws Exception {
+        //arrange
+        RingBufferPetChangeFeed feed = new RingBufferPetChangeFeed(new ChangeFeedProperties(8, 1, Duration.ofSeconds(1)));
+        CompletableFuture<List<PetChange>> waiting =
+                CompletableFuture.supplyAsync(() -> feed.awaitAfter(0, 10, Duration.ofSeconds(30)));
+
+        //act
+        Thread.sleep(50);
+        feed.publish(PetChange.Type.CREATED, 1L, 1L, toto);
+
+        //assert
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).extracting(PetChange::petId).containsExactly(1L);
+        assertThat(feed.awaitAfter(1, 10, Duration.ofMillis(10))).isEmpty();
+    }
+}
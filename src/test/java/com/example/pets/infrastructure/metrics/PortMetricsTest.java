@@ -0,0 +1,54 @@
+package com.example.pets.infrastructure.metrics;
+
+import com.example.pets.domain.exceptions.PetNotFoundException;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.ports.PetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortMetricsTest {
+
+    @Mock
+    private PetRepository target;
+
+    private SimpleMeterRegistry registry;
+    private PetRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = PortMetrics.wrap(PetRepository.class, target, registry, MetricsConfig.REPOSITORY_METRIC);
+    }
+
+    @Test
+    void invoke_successAndFailure_recordsTimerPerOperationAndCountsErrors() {
+        //arrange
+        Pet pet = new Pet(1L, "Toto", "Dog", 3, "Natasha");
+        when(target.findById(1L)).thenReturn(Optional.of(pet));
+        when(target.findById(2L)).thenThrow(new PetNotFoundException(2L));
+
+        //act
+        Optional<Pet> found = repository.findById(1L);
+        assertThatThrownBy(() -> repository.findById(2L)).isInstanceOf(PetNotFoundException.class);
+
+        //assert
+        assertThat(found).contains(pet);
+        assertThat(registry.get("pets.repository").tag("operation", "findById").timer().count()).isEqualTo(2);
+        assertThat(registry.get("pets.repository").tag("operation", "save").timer().count()).isZero();
+        assertThat(registry.get("pets.repository.errors")
+                .tag("operation", "findById")
+                .tag("exception", "PetNotFoundException")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.pets.infrastructure.persistence.cache;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.ports.PetRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPetRepositoryTest {
+
+    @Mock
+    private PetRepository delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CachingPetRepository repository;
+
+    private final Pet toto = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingPetRepository(delegate, new CacheProperties(true, 100, Duration.ofMinutes(1)), nanos::get);
+    }
+
+    @Test
+    void findById_repeatedReads_loadsOnceAndCountsHitsAndMisses() {
+        //arrange
+        when(delegate.findById(1L)).thenReturn(Optional.of(toto));
+        when(delegate.findById(2L)).thenReturn(Optional.empty());
+
+        //act
+        repository.findById(1L);
+        repository.findById(1L);
+        Optional<Pet> found = repository.findById(1L);
+        repository.findById(2L);
+        repository.findById(2L);
+
+        //assert
+        assertThat(found).contains(toto);
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate, times(2)).findById(2L);
+        CacheStats stats = repository.stats();
+        assertThat(stats.hitCount()).isEqualTo(2);
+        assertThat(stats.missCount()).isEqualTo(3);
+    }
+
+    @Test
+    void updateAndDelete_cachedPet_invalidatesSoTheNextReadSeesTheWrite() {
+        //arrange
+        Pet renamed = toto.rename("Koki").withVersion(2L);
+        // chained rather than varargs, which would create a generic Optional[]
+        when(delegate.findById(1L))
+                .thenReturn(Optional.of(toto))
+                .thenReturn(Optional.of(renamed))
+                .thenReturn(Optional.empty());
+        when(delegate.update(eq(1L), any())).thenReturn(Optional.of(renamed));
+        when(delegate.deleteById(1L)).thenReturn(Optional.of(renamed));
+        repository.findById(1L);
+
+        //act
+        repository.update(1L, pet -> pet.rename("Koki"));
+        Optional<Pet> afterUpdate = repository.findById(1L);
+        repository.deleteById(1L);
+        Optional<Pet> afterDelete = repository.findById(1L);
+
+        //assert
+        assertThat(afterUpdate).contains(renamed);
+        assertThat(afterDelete).isEmpty();
+    }
+
+    @Test
+    void findById_afterTimeToLive_reloadsFromDelegate() {
+        //arrange
+        when(delegate.findById(1L)).thenReturn(Optional.of(toto));
+        repository.findById(1L);
+
+        //act
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        repository.findById(1L);
+
+        //assert
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    void findById_moreDistinctPetsThanMaximumSize_evicts() {
+        //arrange
+        when(delegate.findById(anyLong())).thenAnswer(inv -> Optional.of(toto));
+
+        //act
+        for (long id = 1; id <= 1000; id++) {
+            repository.findById(id);
+        }
+
+        //assert
+        assertThat(repository.stats().evictionCount()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void findAllById_partlyCached_loadsOnlyTheMissingIdsInOneCall() {
+        //arrange
+        Pet bini = new Pet(2L, "Bini", "Cat", 2, "Natasha", 1L);
+        when(delegate.findById(1L)).thenReturn(Optional.of(toto));
+        when(delegate.findAllById(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(2L, 3L)))))
+                .thenReturn(List.of(bini));
+        repository.findById(1L);
+
+        //act
+        List<Pet> found = repository.findAllById(List.of(1L, 2L, 3L));
+
+        //assert
+        assertThat(found).containsExactlyInAnyOrder(toto, bini);
+        verify(delegate, times(1)).findAllById(any());
+    }
+}
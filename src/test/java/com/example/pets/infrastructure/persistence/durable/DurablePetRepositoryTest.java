@@ -0,0 +1,158 @@
+package com.example.pets.infrastructure.persistence.durable;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.infrastructure.persistence.inmemory.InMemoryPetRepositoryAdapter;
+import com.example.pets.infrastructure.persistence.inmemory.PetEntityMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DurablePetRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<DurablePetRepository> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(DurablePetRepository::close);
+    }
+
+    @Test
+    void recover_afterRestart_replaysLoggedWrites() throws IOException {
+        //arrange
+        DurablePetRepository first = open();
+        Pet toto = first.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        Pet bini = first.save(new Pet(null, "Bini", "Cat", null, null));
+        first.save(toto.rename("Koki"));
+        first.deleteById(bini.getId());
+        first.close();
+
+        //act
+        DurablePetRepository second = open();
+
+        //assert
+        assertThat(second.findAll()).extracting(Pet::getName).containsExactly("Koki");
+        assertThat(second.save(new Pet(null, "Fido", "Dog", 1, null)).getId()).isGreaterThan(bini.getId());
+    }
+
+    @Test
+    void snapshot_compactsLogAndRecoversSnapshotPlusTail() throws IOException {
+        //arrange
+        DurablePetRepository first = open();
+        for (String name : List.of("Toto", "Bini", "Koki")) {
+            first.save(new Pet(null, name, "Cat", 2, "Natasha"));
+        }
+        first.snapshot();
+        first.save(new Pet(null, "Fido", "Dog", 5, "John"));
+        first.deleteById(1L);
+        first.close();
+
+        //act
+        DurablePetRepository second = open();
+
+        //assert
+        assertThat(second.findAll()).extracting(Pet::getName).containsExactly("Bini", "Koki", "Fido");
+        assertThat(files("snapshot-")).hasSize(1);
+        assertThat(files("wal-")).allMatch(path -> WriteAheadLog.segmentStart(path) >= 3);
+    }
+
+    @Test
+    void recover_tornTail_keepsEverythingBeforeIt() throws IOException {
+        //arrange
+        DurablePetRepository first = open();
+        first.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        first.close();
+        Path segment = files("wal-").get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        //act
+        DurablePetRepository second = open();
+        second.save(new Pet(null, "Bini", "Cat", 2, null));
+        second.close();
+        DurablePetRepository third = open();
+
+        //assert
+        assertThat(third.findAll()).extracting(Pet::getName).containsExactly("Toto", "Bini");
+    }
+
+    @Test
+    void recover_damagedSnapshot_failsInsteadOfLosingThePetsAfterTheDamage() throws IOException {
+        //arrange
+        DurablePetRepository first = open();
+        for (String name : List.of("Toto", "Bini", "Koki")) {
+            first.save(new Pet(null, name, "Cat", 2, "Natasha"));
+        }
+        first.snapshot();
+        first.close();
+        Path snapshot = files("snapshot-").get(0);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        //act & assert
+        assertThatThrownBy(this::open)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("is damaged")
+                .hasRootCauseMessage("Corrupt frame after 2 records");
+    }
+
+    @Test
+    void recover_updateOfANewPetLoggedBeforeItsCreation_replaysTheUpdate() throws Exception {
+        //arrange
+        AtomicReference<DurablePetRepository> repository = new AtomicReference<>();
+        DurablePetRepository first = open(new InMemoryPetRepositoryAdapter(Mappers.getMapper(PetEntityMapper.class)) {
+            @Override
+            public Pet save(Pet pet) {
+                Pet saved = super.save(pet);
+                // another request finds the new pet and updates it before the create has been logged
+                CompletableFuture.runAsync(() -> repository.get().update(saved.getId(), p -> p.rename("Koki")))
+                        .join();
+                return saved;
+            }
+        });
+        repository.set(first);
+        first.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        first.close();
+
+        //act
+        DurablePetRepository second = open();
+
+        //assert
+        assertThat(second.findAll()).extracting(Pet::getName).containsExactly("Koki");
+    }
+
+    private DurablePetRepository open() throws IOException {
+        return open(new InMemoryPetRepositoryAdapter(Mappers.getMapper(PetEntityMapper.class)));
+    }
+
+    private DurablePetRepository open(InMemoryPetRepositoryAdapter delegate) throws IOException {
+        DurabilityProperties properties = new DurabilityProperties(true, directory, Duration.ZERO, true, Duration.ZERO);
+        DurablePetRepository repository = new DurablePetRepository(delegate, properties);
+        repository.recover();
+        opened.add(repository);
+        return repository;
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentLongMapTest {
+
+    @Test
+    void compute_manyInsertsAndDeletes_keepsRemainingEntriesReachable() {
+        //arrange
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        for (long key = 0; key < 10_000; key++) {
+            long k = key;
+            map.compute(key, (ignored, current) -> "v" + k);
+        }
+
+        //act
+        for (long key = 0; key < 10_000; key += 3) {
+            map.compute(key, (ignored, current) -> null);
+        }
+
+        //assert
+        assertThat(map.size()).isEqualTo(10_000 - 3334);
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key % 3 == 0 ? null : "v" + key);
+        }
+    }
+
+    @Test
+    void compute_concurrentIncrementsOnSameKeys_areNotLost() throws Exception {
+        //arrange
+        ConcurrentLongMap<Integer> map = new ConcurrentLongMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //act
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    map.compute(i % 100, (key, current) -> current == null ? 1 : current + 1);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //assert
+        assertThat(map.size()).isEqualTo(100);
+        for (long key = 0; key < 100; key++) {
+            assertThat(map.get(key)).isEqualTo(800);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pets.infrastructure.persistence.inmemory;
 
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +11,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 @ExtendWith(MockitoExtension.class)
 class InMemoryPetRepositoryAdapterTest {
@@ -29,13 +36,13 @@ class InMemoryPetRepositoryAdapterTest {
     void setUp() {
         repository = new InMemoryPetRepositoryAdapter(mapper);
         pet = new Pet(null, "Toto", "Dog", 3, "Natasha");
-        entity = new PetEntity(null, "Toto", "Dog", 3, "Natasha");
+        entity = new PetEntity(null, "Toto", "Dog", 3, "Natasha", null);
     }
 
     @Test
     void save_newPet_assignsIdAndReturnsDomainPet() {
         //arrange
-        when(mapper.toEntity(pet)).thenReturn(entity);
+        when(mapper.toEntity(any(Pet.class))).thenReturn(entity);
         when(mapper.toDomain(any(PetEntity.class)))
                 .thenAnswer(inv -> {
                     PetEntity e = inv.getArgument(0);
@@ -53,7 +60,7 @@ class InMemoryPetRepositoryAdapterTest {
     @Test
     void findById_existingPet_returnsOptionalWithPet() {
         //arrange
-        when(mapper.toEntity(pet)).thenReturn(entity);
+        when(mapper.toEntity(any(Pet.class))).thenReturn(entity);
         when(mapper.toDomain(any(PetEntity.class)))
                 .thenReturn(new Pet(1L, "Toto", "Dog", 3, "Natasha"));
         repository.save(pet);
@@ -69,7 +76,7 @@ class InMemoryPetRepositoryAdapterTest {
     @Test
     void deleteById_existingPet_removesFromRepository() {
         //arrange
-        when(mapper.toEntity(pet)).thenReturn(entity);
+        when(mapper.toEntity(any(Pet.class))).thenReturn(entity);
         when(mapper.toDomain(any(PetEntity.class)))
                 .thenReturn(new Pet(1L, "Toto", "Dog", 3, "Natasha"));
         Pet saved = repository.save(pet);
@@ -80,4 +87,260 @@ class InMemoryPetRepositoryAdapterTest {
         //assert
         assertThat(repository.findAll()).isEmpty();
     }
+
+    @Test
+    void findPage_afterId_returnsFollowingPetsInIdOrder() {
+        //arrange
+        when(mapper.toEntity(any(Pet.class)))
+                .thenAnswer(inv -> {
+                    Pet p = inv.getArgument(0);
+                    return new PetEntity(p.getId(), p.getName(), p.getSpecies(), p.getAge(), p.getOwnerName(), p.getVersion());
+                });
+        when(mapper.toDomain(any(PetEntity.class)))
+                .thenAnswer(inv -> {
+                    PetEntity e = inv.getArgument(0);
+                    return new Pet(e.getId(), e.getName(), e.getSpecies(), e.getAge(), e.getOwnerName());
+                });
+        for (String name : List.of("Toto", "Bini", "Koki", "Fido", "Rex")) {
+            repository.save(new Pet(null, name, "Dog", 3, "Natasha"));
+        }
+        repository.deleteById(3L);
+
+        //act
+        List<Pet> firstPage = repository.findPage(null, 2);
+        List<Pet> secondPage = repository.findPage(2L, 2);
+        List<Pet> lastPage = repository.findPage(5L, 2);
+
+        //assert
+        assertThat(firstPage).extracting(Pet::getId).containsExactly(1L, 2L);
+        assertThat(secondPage).extracting(Pet::getId).containsExactly(4L, 5L);
+        assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    void findBySpeciesAndOwner_afterUpdateAndDelete_indexesStayInSync() {
+        //arrange
+        when(mapper.toEntity(any(Pet.class)))
+                .thenAnswer(inv -> {
+                    Pet p = inv.getArgument(0);
+                    return new PetEntity(p.getId(), p.getName(), p.getSpecies(), p.getAge(), p.getOwnerName(), p.getVersion());
+                });
+        when(mapper.toDomain(any(PetEntity.class)))
+                .thenAnswer(inv -> {
+                    PetEntity e = inv.getArgument(0);
+                    return new Pet(e.getId(), e.getName(), e.getSpecies(), e.getAge(), e.getOwnerName());
+                });
+        Pet toto = repository.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        Pet bini = repository.save(new Pet(null, "Bini", "Cat", 2, "Natasha"));
+        Pet fido = repository.save(new Pet(null, "Fido", "Dog", 5, "John"));
+
+        //act
+        repository.save(toto.changeSpecies("Cat").changeOwner("John"));
+        repository.deleteById(fido.getId());
+
+        //assert
+        assertThat(repository.findBySpecies("cat")).extracting(Pet::getId).containsExactly(toto.getId(), bini.getId());
+        assertThat(repository.findBySpecies("Dog")).isEmpty();
+        assertThat(repository.findByOwner("Natasha")).extracting(Pet::getId).containsExactly(bini.getId());
+        assertThat(repository.findByOwner("John")).extracting(Pet::getId).containsExactly(toto.getId());
+        assertThat(repository.findByOwner("Nobody")).isEmpty();
+    }
+
+    @Test
+    void findByAgeRange_afterAgeChange_returnsPetsInAgeOrder() {
+        //arrange
+        when(mapper.toEntity(any(Pet.class)))
+                .thenAnswer(inv -> {
+                    Pet p = inv.getArgument(0);
+                    return new PetEntity(p.getId(), p.getName(), p.getSpecies(), p.getAge(), p.getOwnerName(), p.getVersion());
+                });
+        when(mapper.toDomain(any(PetEntity.class)))
+                .thenAnswer(inv -> {
+                    PetEntity e = inv.getArgument(0);
+                    return new Pet(e.getId(), e.getName(), e.getSpecies(), e.getAge(), e.getOwnerName());
+                });
+        Pet toto = repository.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        Pet bini = repository.save(new Pet(null, "Bini", "Cat", 1, "Natasha"));
+        Pet fido = repository.save(new Pet(null, "Fido", "Dog", 9, "John"));
+        repository.save(new Pet(null, "Koki", "Bird", null, "John"));
+
+        //act
+        repository.save(toto.updateAge(0));
+
+        //assert
+        assertThat(repository.findByAgeRange(0, 2, false, Integer.MAX_VALUE))
+                .extracting(Pet::getName).containsExactly("Toto", "Bini");
+        assertThat(repository.findByAgeRange(null, null, true, 2))
+                .extracting(Pet::getId).containsExactly(fido.getId(), bini.getId());
+        assertThat(repository.findByAgeRange(2, 8, false, 10)).isEmpty();
+    }
+
+    @Test
+    void compactLayout_saveUpdateAndQuery_roundTripsAllFields() {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        Pet toto = compact.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        compact.save(new Pet(null, "Koki", "Bird", null, null));
+
+        //act
+        Pet updated = compact.save(toto.changeSpecies("Cat").updateAge(4));
+
+        //assert
+        assertThat(compact.findById(toto.getId())).get()
+                .usingRecursiveComparison().isEqualTo(new Pet(toto.getId(), "Toto", "Cat", 4, "Natasha", 2L));
+        assertThat(updated.getSpecies()).isEqualTo("Cat");
+        assertThat(compact.findBySpecies("dog")).isEmpty();
+        assertThat(compact.findByAgeRange(4, 4, false, 10)).extracting(Pet::getName).containsExactly("Toto");
+        assertThat(compact.findById(2L)).get().extracting(Pet::getAge, Pet::getOwnerName).containsExactly(null, null);
+    }
+
+    @Test
+    void snapshotLayout_reads_returnTheStoredInstanceUntilTheNextWrite() {
+        //arrange
+        InMemoryPetRepositoryAdapter snapshot = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.SNAPSHOT));
+        Pet toto = snapshot.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+
+        //act
+        Pet first = snapshot.findById(toto.getId()).orElseThrow();
+        Pet second = snapshot.findAll().get(0);
+        Pet updated = snapshot.update(toto.getId(), pet -> pet.updateAge(4)).orElseThrow();
+
+        //assert
+        assertThat(first).isSameAs(toto).isSameAs(second);
+        assertThat(toto.getId()).isEqualTo(1L);
+        assertThat(snapshot.findById(toto.getId())).get().isSameAs(updated);
+        assertThat(updated.getAge()).isEqualTo(4);
+        assertThat(updated.getVersion()).isEqualTo(2L);
+        assertThat(snapshot.findByAgeRange(4, 4, false, 10)).containsExactly(updated);
+    }
+
+    @Test
+    void saveAllAndDeleteAllById_mixedIds_allocatesIdsAfterExplicitOnes() {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        compact.save(new Pet(10L, "Rex", "Dog", 5, "Ana"));
+
+        //act
+        List<Pet> saved = compact.saveAll(List.of(pet, new Pet(3L, "Bini", "Cat", 2, "Ana"), pet));
+        List<Pet> deleted = compact.deleteAllById(List.of(3L, 11L, 99L));
+
+        //assert
+        assertThat(saved).extracting(Pet::getId).containsExactly(11L, 3L, 12L);
+        assertThat(deleted).extracting(Pet::getId).containsExactly(3L, 11L);
+        assertThat(compact.findAll()).extracting(Pet::getId).containsExactly(10L, 12L);
+        assertThat(compact.findAllById(List.of(12L, 3L))).extracting(Pet::getName).containsExactly("Toto");
+    }
+
+    @Test
+    void saveAll_explicitIdAheadOfTheGenerator_doesNotGiveItToANewPet() {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        compact.save(pet);
+        compact.save(pet);
+
+        //act
+        List<Pet> saved = compact.saveAll(List.of(pet, new Pet(3L, "Bini", "Cat", 2, "Ana")));
+
+        //assert
+        assertThat(saved).extracting(Pet::getId).containsExactly(4L, 3L);
+        assertThat(compact.findById(3L)).get().extracting(Pet::getName).isEqualTo("Bini");
+        assertThat(compact.findAll()).extracting(Pet::getId).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void saveAndRestore_petCarryingAVersion_onlyRestoreKeepsIt() {
+        //arrange
+        InMemoryPetRepositoryAdapter snapshot = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.SNAPSHOT));
+        Pet toto = snapshot.save(pet);
+        snapshot.update(toto.getId(), p -> p.updateAge(4));
+
+        //act
+        Pet saved = snapshot.save(toto.rename("Koki"));
+        Pet restored = snapshot.restore(new Pet(7L, "Bini", "Cat", 2, null, 5L));
+
+        //assert
+        assertThat(toto.getVersion()).isEqualTo(1L);
+        assertThat(saved.getVersion()).isEqualTo(3L);
+        assertThat(restored.getVersion()).isEqualTo(5L);
+        assertThat(snapshot.save(new Pet(null, "Fido", "Dog", 1, null)).getId()).isEqualTo(8L);
+    }
+
+    @Test
+    void update_concurrentIncrements_appliesEveryUpdaterAndBumpsVersion() throws Exception {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        Pet toto = compact.save(new Pet(null, "Toto", "Dog", 0, "Natasha"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> compact.update(toto.getId(), p -> p.updateAge(p.getAge() + 1))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //assert
+        assertThat(compact.findById(toto.getId())).get()
+                .extracting(Pet::getAge, Pet::getVersion).containsExactly(200, 201L);
+        assertThat(compact.update(99L, p -> p.rename("Ghost"))).isEmpty();
+        assertThat(compact.deleteById(toto.getId())).get().extracting(Pet::getVersion).isEqualTo(201L);
+        assertThat(compact.deleteById(toto.getId())).isEmpty();
+    }
+
+    @Test
+    void searchByName_afterRename_ranksNamePrefixThenOwnerPrefixThenFuzzyMatches() {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        Pet toto = compact.save(new Pet(null, "Toto", "Dog", 3, "Binh"));
+        Pet bini = compact.save(new Pet(null, "Bini", "Cat", 2, "Natasha"));
+        Pet koki = compact.save(new Pet(null, "Koki", "Bird", 1, null));
+        Pet fido = compact.save(new Pet(null, "Fido", "Dog", 5, "John"));
+
+        //act
+        compact.update(koki.getId(), pet -> pet.rename("Bino"));
+        compact.update(fido.getId(), pet -> pet.rename("Vini"));
+
+        //assert
+        assertThat(compact.searchByName("bin", 10)).extracting(Pet::getId)
+                .containsExactly(bini.getId(), koki.getId(), toto.getId());
+        assertThat(compact.searchByName("bini", 10)).extracting(Pet::getId)
+                .containsExactly(bini.getId(), koki.getId(), fido.getId(), toto.getId());
+        assertThat(compact.searchByName("bin", 1)).extracting(Pet::getName).containsExactly("Bini");
+        assertThat(compact.searchByName("koki", 10)).isEmpty();
+    }
+
+    @Test
+    void statistics_afterUpdatesAndDeletes_movesCountsFromOldToNewValues() {
+        //arrange
+        InMemoryPetRepositoryAdapter compact = new InMemoryPetRepositoryAdapter(mapper,
+                new InMemoryStorageProperties(InMemoryStorageProperties.Layout.COMPACT));
+        Pet toto = compact.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        Pet bini = compact.save(new Pet(null, "Bini", "cat", 2, "natasha"));
+        compact.save(new Pet(null, "Koki", "Bird", null, "John"));
+        Pet fido = compact.save(new Pet(null, "Fido", "Dog", 3, null));
+
+        //act
+        compact.update(toto.getId(), pet -> pet.changeSpecies("Cat").updateAge(4).changeOwner("John"));
+        compact.deleteById(fido.getId());
+        compact.save(bini.rename("Mici"));
+
+        //assert
+        PetStatistics statistics = compact.statistics();
+        assertThat(statistics.totalPets()).isEqualTo(3);
+        assertThat(statistics.petsBySpecies()).containsExactly(entry("bird", 1L), entry("cat", 2L));
+        assertThat(statistics.petsByAge()).containsExactly(entry(2, 1L), entry(4, 1L));
+        assertThat(statistics.petsWithoutAge()).isEqualTo(1);
+        assertThat(statistics.ownersByPetCount()).containsExactly(entry(1, 1L), entry(2, 1L));
+        assertThat(statistics.petsWithoutOwner()).isZero();
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import com.example.pets.domain.model.Pet;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.mapstruct.factory.Mappers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memory-footprint report for the in-memory storage layouts. Each pet is built from freshly allocated
+ * strings, as it would be after JSON deserialization, so duplicated species and owner values are counted.
+ */
+class InMemoryStorageFootprintTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStorageFootprintTest.class);
+    private static final int PETS = 20_000;
+    private static final String[] SPECIES = {"Cat", "Dog", "Rabbit", "Parrot", "Hamster"};
+    private static final PetStore.ChangeListener NO_INDEXES = (id, previous, current) -> { };
+
+    @Test
+    void compactLayout_usesLessHeapThanEntityLayout() {
+        //arrange
+        PetStore entityStore = new EntityPetStore(Mappers.getMapper(PetEntityMapper.class));
+        PetStore compactStore = new CompactPetStore();
+
+        //act
+        for (long id = 1; id <= PETS; id++) {
+            Pet pet = pet(id);
+            entityStore.compute(id, previous -> pet, NO_INDEXES);
+            compactStore.compute(id, previous -> pet, NO_INDEXES);
+        }
+        long entityBytes = GraphLayout.parseInstance(entityStore).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compactStore).totalSize();
+
+        //assert
+        log.info("In-memory storage footprint for {} pets: entity {} bytes ({} per pet), compact {} bytes ({} per pet, {}% of entity)",
+                PETS, entityBytes, entityBytes / PETS, compactBytes, compactBytes / PETS, compactBytes * 100 / entityBytes);
+        assertThat(compactStore.get(42)).usingRecursiveComparison().isEqualTo(entityStore.get(42));
+        assertThat(compactBytes).isLessThan(entityBytes * 3 / 4);
+    }
+
+    private static Pet pet(long id) {
+        // new String(...) defeats literal interning, like a JSON parser would
+        return new Pet(null,
+                new String("Pet" + id),
+                new String(SPECIES[(int) (id % SPECIES.length)]),
+                (int) (id % 20),
+                new String("Owner" + (id % 500)));
+    }
+}
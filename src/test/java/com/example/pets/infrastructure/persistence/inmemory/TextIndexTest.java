@@ -0,0 +1,123 @@
+package com.example.pets.infrastructure.persistence.inmemory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    @Test
+    void collectPrefixMatches_anyWordOfTheValue_returnsExactTermFirstAndStopsAtLimit() {
+        //arrange
+        TextIndex index = new TextIndex();
+        index.add("Binky", 1);
+        index.add("Bi", 2);
+        index.add("Mr Bini", 3);
+        index.add("Toto", 4);
+
+        //act
+        Set<Long> all = new LinkedHashSet<>();
+        index.collectPrefixMatches("BI", all, 10);
+        Set<Long> limited = new LinkedHashSet<>();
+        index.collectPrefixMatches("bi", limited, 2);
+        Set<Long> wholeValue = new LinkedHashSet<>();
+        index.collectPrefixMatches("mr b", wholeValue, 10);
+
+        //assert
+        assertThat(all).containsExactly(2L, 3L, 1L);
+        assertThat(limited).containsExactly(2L, 3L);
+        assertThat(wholeValue).containsExactly(3L);
+    }
+
+    @Test
+    void collectFuzzyMatches_oneEditAway_findsSubstitutionInsertionDeletionAndTransposition() {
+        //arrange
+        TextIndex index = new TextIndex();
+        index.add("Bini", 1);
+        index.add("Natasha", 2);
+        index.add("Koki", 3);
+
+        //act & assert
+        assertThat(fuzzy(index, "bino")).containsExactly(1L);
+        assertThat(fuzzy(index, "biini")).containsExactly(1L);
+        assertThat(fuzzy(index, "natsha")).containsExactly(2L);
+        assertThat(fuzzy(index, "natahsa")).containsExactly(2L);
+        assertThat(fuzzy(index, "kikk")).isEmpty();
+        assertThat(fuzzy(index, "bo")).isEmpty();
+    }
+
+    @Test
+    void remove_lastPetWithATerm_dropsTheTermFromPrefixAndFuzzyLookups() {
+        //arrange
+        TextIndex index = new TextIndex();
+        index.add("Bini", 1);
+        index.add("Bini", 2);
+
+        //act
+        index.remove("Bini", 1);
+        Set<Long> stillIndexed = new LinkedHashSet<>();
+        index.collectPrefixMatches("bin", stillIndexed, 10);
+        index.remove("Bini", 2);
+        Set<Long> prefix = new LinkedHashSet<>();
+        index.collectPrefixMatches("bin", prefix, 10);
+
+        //assert
+        assertThat(stillIndexed).containsExactly(2L);
+        assertThat(prefix).isEmpty();
+        assertThat(fuzzy(index, "bino")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void addAndRemove_concurrentTermsSharingADeletion_keepTheirFuzzyEntries() throws Exception {
+        //arrange
+        // all filed under the deletion "bin" only, so their adds and removes keep creating and dropping one owner set
+        List<String> names = List.of("Bini", "Bino", "Binu", "Biny");
+        TextIndex index = new TextIndex();
+        ExecutorService executor = Executors.newFixedThreadPool(names.size());
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        //act
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            long id = i + 1;
+            futures.add(executor.submit(() -> churn(index, name, id)));
+        }
+        int lost = 0;
+        for (Future<Integer> future : futures) {
+            lost += future.get();
+        }
+        executor.shutdown();
+
+        //assert
+        assertThat(lost).isZero();
+        assertThat(fuzzy(index, "bina")).isEmpty();
+    }
+
+    // returns how often the value just added could not be found by a fuzzy query
+    private static int churn(TextIndex index, String value, long id) {
+        int lost = 0;
+        for (int i = 0; i < 50_000; i++) {
+            index.add(value, id);
+            if (!fuzzy(index, "bina").contains(id)) {
+                lost++;
+            }
+            index.remove(value, id);
+        }
+        return lost;
+    }
+
+    private static Set<Long> fuzzy(TextIndex index, String query) {
+        Set<Long> ids = new LinkedHashSet<>();
+        index.collectFuzzyMatches(query, ids, 10);
+        return ids;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.pets.infrastructure.persistence.jpa;
+
+import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetStatistics;
+import com.example.pets.domain.ports.PetRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("jpa")
+class JpaPetRepositoryAdapterTest {
+
+    @Autowired
+    private PetRepository repository;
+
+    @Autowired
+    private SpringDataPetRepository springDataRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        springDataRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_manyPets_insertsAndUpdatesInJdbcBatches() {
+        //arrange
+        List<Pet> pets = IntStream.range(0, 200)
+                .mapToObj(i -> new Pet(null, "Pet" + i, i % 2 == 0 ? "Cat" : "Dog", i % 15, "Natasha"))
+                .toList();
+
+        //act
+        List<Pet> saved = repository.saveAll(pets);
+        long insertStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        repository.saveAll(saved.stream().map(pet -> pet.updateAge(pet.getAge() + 1)).toList());
+
+        //assert
+        assertThat(saved).allMatch(pet -> pet.getId() != null);
+        // statements are prepared once and reused for every batch of 50, instead of 200 inserts and 4 sequence calls
+        assertThat(insertStatements).isEqualTo(5);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(200);
+        // the IN query for the existing rows and the batched update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void restore_idNotStored_insertsUnderTheGivenIdAndVersion() {
+        //arrange
+        Pet earlier = repository.save(new Pet(null, "Fido", "Dog", 9, "John"));
+        Pet restored = new Pet(earlier.getId() + 10_000, "Bini", "Cat", 1, null, 7L);
+
+        //act
+        repository.restore(restored);
+        Pet created = repository.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+
+        //assert
+        assertThat(repository.findById(restored.getId())).get().usingRecursiveComparison().isEqualTo(restored);
+        // past the restored id, including the ids left in the block the earlier save fetched
+        assertThat(created.getId()).isGreaterThan(restored.getId());
+        assertThat(repository.findAll()).hasSize(3);
+    }
+
+    @Test
+    void saveAll_explicitIdThatIsNotStored_rejectsTheWholeBatch() {
+        //arrange
+        List<Pet> pets = List.of(new Pet(null, "Toto", "Dog", 3, "Natasha"), new Pet(1_000_000L, "Bini", "Cat", 1, null));
+
+        //act + assert
+        assertThatThrownBy(() -> repository.saveAll(pets))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(springDataRepository.count()).isZero();
+    }
+
+    @Test
+    void queries_matchInMemorySemantics() {
+        //arrange
+        Pet toto = repository.save(new Pet(null, "Toto", "Dog", 3, "Natasha"));
+        Pet bini = repository.save(new Pet(null, "Bini", "Cat", 1, "Natasha"));
+        Pet fido = repository.save(new Pet(null, "Fido", "Dog", 9, "John"));
+        repository.save(new Pet(null, "Koki", "Bird", null, "John"));
+
+        //act
+        repository.save(toto.changeSpecies("Cat"));
+        repository.deleteById(fido.getId());
+
+        //assert
+        assertThat(repository.findBySpecies("cat")).extracting(Pet::getName).containsExactly("Toto", "Bini");
+        assertThat(repository.findByOwner("john")).extracting(Pet::getName).containsExactly("Koki");
+        assertThat(repository.findByAgeRange(null, null, true, 1)).extracting(Pet::getName).containsExactly("Toto");
+        assertThat(repository.findPage(toto.getId(), 1)).extracting(Pet::getId).containsExactly(bini.getId());
+        assertThat(repository.existsById(fido.getId())).isFalse();
+        assertThat(repository.searchByName("jo", 10)).extracting(Pet::getName).containsExactly("Koki");
+        assertThat(repository.searchByName("t", 10)).extracting(Pet::getName).containsExactly("Toto");
+        assertThat(repository.searchByName("n", 1)).extracting(Pet::getName).containsExactly("Toto");
+        assertThat(repository.statistics()).isEqualTo(new PetStatistics(3, Map.of("bird", 1L, "cat", 2L),
+                Map.of(1, 1L, 3, 1L), 1, Map.of(1, 1L, 2, 1L), 0));
+    }
+
+    @Test
+    void streamAll_moreThanOneChunk_streamsEveryPetInIdOrder() {
+        //arrange
+        repository.saveAll(IntStream.range(0, 1200)
+                .mapToObj(i -> new Pet(null, "Pet" + i, "Cat", 1, null))
+                .toList());
+
+        //act
+        List<Long> ids;
+        try (Stream<Pet> pets = repository.streamAll()) {
+            ids = pets.map(Pet::getId).toList();
+        }
+
+        //assert
+        assertThat(ids).hasSize(1200).isSorted();
+    }
+
+    @Test
+    void deleteAllById_someMissing_deletesExistingInOneStatement() {
+        //arrange
+        List<Long> ids = repository.saveAll(IntStream.range(0, 100)
+                        .mapToObj(i -> new Pet(null, "Pet" + i, "Cat", 1, null))
+                        .toList())
+                .stream().map(Pet::getId).toList();
+        statistics.clear();
+
+        //act
+        List<Pet> deleted = repository.deleteAllById(Stream.concat(ids.stream(), Stream.of(-1L)).toList());
+        long statements = statistics.getPrepareStatementCount();
+
+        //assert
+        assertThat(deleted).extracting(Pet::getId).hasSize(100).doesNotContain(-1L);
+        assertThat(springDataRepository.count()).isZero();
+        // one locking lookup and one bulk delete, however many ids are given
+        assertThat(statements).isEqualTo(2);
+    }
+}
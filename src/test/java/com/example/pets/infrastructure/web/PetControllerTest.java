@@ -2,21 +2,31 @@ package com.example.pets.infrastructure.web;
 
 import com.example.pets.application.port.in.PetUseCase;
 import com.example.pets.domain.model.Pet;
+import com.example.pets.domain.model.PetPage;
+import com.example.pets.infrastructure.web.admission.ClientResolver;
 import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetFields;
 import com.example.pets.infrastructure.web.dto.PetResponse;
 import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.example.pets.infrastructure.web.idempotency.IdempotencyProperties;
+import com.example.pets.infrastructure.web.idempotency.IdempotencyStore;
 import com.example.pets.infrastructure.web.mapper.PetMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -37,7 +47,8 @@ class PetControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        PetController controller = new PetController(petUseCase, petMapper);
+        PetController controller = new PetController(petUseCase, petMapper,
+                new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(1))), new ClientResolver(""));
         mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
@@ -46,7 +57,7 @@ class PetControllerTest {
         //arrange
         PetCreateRequest request = new PetCreateRequest("Toto", "Dog", 3, "Natasha");
         Pet domainPet = new Pet(1L, "Toto", "Dog", 3, "Natasha");
-        PetResponse response = new PetResponse(1L, "Toto", "Dog", 3, "Natasha");
+        PetResponse response = new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L);
 
         when(petMapper.toDomain(request)).thenReturn(domainPet);
         when(petUseCase.createPet(any(Pet.class))).thenReturn(domainPet);
@@ -64,15 +75,92 @@ class PetControllerTest {
                 .andExpect(jsonPath("$.ownerName").value("Natasha"));
     }
 
+    @Test
+    void createPet_retryWithSameIdempotencyKey_replaysFirstResponseWithoutCreatingAgain() throws Exception {
+        //arrange
+        PetCreateRequest request = new PetCreateRequest("Toto", "Dog", 3, "Natasha");
+        Pet domainPet = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+        when(petMapper.toDomain(request)).thenReturn(domainPet);
+        when(petUseCase.createPet(any(Pet.class))).thenReturn(domainPet);
+        when(petMapper.toResponse(domainPet)).thenReturn(new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L));
+        String body = objectMapper.writeValueAsString(request);
+        mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        //act
+        var result = mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+
+        //assert
+        result.andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string(HttpHeaders.ETAG, PetETag.of(1L, null, PetFields.ALL)))
+                .andExpect(jsonPath("$.id").value(1L));
+        verify(petUseCase, times(1)).createPet(any(Pet.class));
+    }
+
+    @Test
+    void createPet_sameIdempotencyKeyFromAnotherClient_createsAgain() throws Exception {
+        //arrange
+        PetCreateRequest request = new PetCreateRequest("Toto", "Dog", 3, "Natasha");
+        Pet domainPet = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+        when(petMapper.toDomain(request)).thenReturn(domainPet);
+        when(petUseCase.createPet(any(Pet.class))).thenReturn(domainPet);
+        when(petMapper.toResponse(domainPet)).thenReturn(new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L));
+        String body = objectMapper.writeValueAsString(request);
+        mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                        .with(remoteAddress("192.0.2.1"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        //act
+        var result = mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                .with(remoteAddress("192.0.2.2"))
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+
+        //assert
+        result.andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        verify(petUseCase, times(2)).createPet(any(Pet.class));
+    }
+
+    @Test
+    void createPet_retryAcceptingAnotherMediaType_replaysWithThatTypesETag() throws Exception {
+        //arrange
+        PetCreateRequest request = new PetCreateRequest("Toto", "Dog", 3, "Natasha");
+        Pet domainPet = new Pet(1L, "Toto", "Dog", 3, "Natasha", 1L);
+        when(petMapper.toDomain(request)).thenReturn(domainPet);
+        when(petUseCase.createPet(any(Pet.class))).thenReturn(domainPet);
+        when(petMapper.toResponse(domainPet)).thenReturn(new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L));
+        String body = objectMapper.writeValueAsString(request);
+        mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                        .header(HttpHeaders.ACCEPT, "application/cbor")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-cbor\""));
+
+        //act
+        var result = mockMvc.perform(post("/api/v1/pets").header("Idempotency-Key", "retry-1")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+
+        //assert
+        result.andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-json\""))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        verify(petUseCase, times(1)).createPet(any(Pet.class));
+    }
+
     @Test
     void updatePet_validRequest_returnsUpdatedPet() throws Exception {
         //arrange
         PetUpdateRequest request = new PetUpdateRequest("Koki", null, 4, null);
         Pet domainPet = new Pet(1L, "Koki", "Dog", 4, "Natasha");
-        PetResponse response = new PetResponse(1L, "Koki", "Dog", 4, "Natasha");
+        PetResponse response = new PetResponse(1L, "Koki", "Dog", 4, "Natasha", 1L);
 
         when(petMapper.toDomain(request)).thenReturn(domainPet);
-        when(petUseCase.updatePet(eq(1L), any(Pet.class))).thenReturn(domainPet);
+        when(petUseCase.updatePet(eq(1L), any(Pet.class), isNull())).thenReturn(domainPet);
         when(petMapper.toResponse(domainPet)).thenReturn(response);
 
         //act
@@ -91,7 +179,7 @@ class PetControllerTest {
     void getPet_existingId_returnsPet() throws Exception {
         //arrange
         Pet domainPet = new Pet(1L, "Toto", "Dog", 3, "Natasha");
-        PetResponse response = new PetResponse(1L, "Toto", "Dog", 3, "Natasha");
+        PetResponse response = new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L);
 
         when(petUseCase.getPet(1L)).thenReturn(domainPet);
         when(petMapper.toResponse(domainPet)).thenReturn(response);
@@ -105,6 +193,71 @@ class PetControllerTest {
                 .andExpect(jsonPath("$.ownerName").value("Natasha"));
     }
 
+    @Test
+    void getPet_ifNoneMatchCurrentETag_returnsNotModifiedWithoutMapping() throws Exception {
+        //arrange
+        when(petUseCase.getPet(1L)).thenReturn(new Pet(1L, "Toto", "Dog", 3, "Natasha", 7L));
+
+        //act
+        var result = mockMvc.perform(get("/api/v1/pets/1")
+                .header(HttpHeaders.IF_NONE_MATCH, PetETag.of(7L, null, PetFields.ALL)));
+
+        //assert
+        result.andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, PetETag.of(7L, null, PetFields.ALL)))
+                .andExpect(content().string(""));
+        verifyNoInteractions(petMapper);
+    }
+
+    @Test
+    void getPet_otherEncodingOrFields_getsItsOwnStrongETag() throws Exception {
+        //arrange
+        when(petUseCase.getPet(1L)).thenReturn(new Pet(1L, "Toto", "Dog", 3, "Natasha", 7L));
+        when(petMapper.toResponse(any(Pet.class))).thenReturn(new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 7L));
+        String jsonETag = PetETag.of(7L, null, PetFields.ALL);
+
+        //act
+        String cbor = mockMvc.perform(get("/api/v1/pets/1").accept("application/cbor")
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String partial = mockMvc.perform(get("/api/v1/pets/1?fields=name,id")
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //assert
+        assertThat(cbor).isEqualTo(PetETag.of(7L, "application/cbor", PetFields.ALL)).isEqualTo("\"7-cbor\"");
+        assertThat(partial).isEqualTo(PetETag.of(7L, null, PetFields.parse("id,name"))).isEqualTo("\"7-json-id.name\"");
+        assertThat(List.of(jsonETag, cbor, partial)).doesNotHaveDuplicates().noneMatch(tag -> tag.startsWith("W/"));
+        assertThat(PetETag.expectedVersion(cbor)).isEqualTo(7L);
+        assertThat(PetETag.expectedVersion("\"7\"")).isEqualTo(-1L);
+    }
+
+    @Test
+    void of_malformedAccept_fallsBackToTheJsonTag() {
+        //act
+        String eTag = PetETag.of(7L, "application/json;q=", PetFields.ALL);
+
+        //assert
+        assertThat(eTag).isEqualTo(PetETag.of(7L, null, PetFields.ALL));
+    }
+
+    @Test
+    void getAllPets_ifNoneMatchCurrentETag_returnsNotModifiedWithoutQuerying() throws Exception {
+        //arrange
+        when(petUseCase.getModificationCount()).thenReturn(42L);
+        String eTag = mockMvc.perform(get("/api/v1/pets"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //act
+        var result = mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        //assert
+        result.andExpect(status().isNotModified());
+        verify(petUseCase, times(1)).getAllPets();
+    }
+
     @Test
     void deletePet_existingId_returnsNoContent() throws Exception {
         //arrange
@@ -123,8 +276,8 @@ class PetControllerTest {
         //arrange
         Pet pet1 = new Pet(1L, "Toto", "Dog", 3, "Natasha");
         Pet pet2 = new Pet(2L, "Bini", "Cat", 2, "Natasha");
-        PetResponse response1 = new PetResponse(1L, "Toto", "Dog", 3, "Natasha");
-        PetResponse response2 = new PetResponse(2L, "Bini", "Cat", 2, "Natasha");
+        PetResponse response1 = new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L);
+        PetResponse response2 = new PetResponse(2L, "Bini", "Cat", 2, "Natasha", 1L);
 
         when(petUseCase.getAllPets()).thenReturn(List.of(pet1, pet2));
         when(petMapper.toResponse(pet1)).thenReturn(response1);
@@ -139,4 +292,49 @@ class PetControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Toto"))
                 .andExpect(jsonPath("$[1].name").value("Bini"));
     }
+
+    @Test
+    void getAllPets_withLimit_returnsPageAndNextCursor() throws Exception {
+        //arrange
+        Pet pet1 = new Pet(1L, "Toto", "Dog", 3, "Natasha");
+        PetResponse response1 = new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L);
+
+        when(petUseCase.getPetPage(null, 1)).thenReturn(new PetPage(List.of(pet1), 1L));
+        when(petMapper.toResponse(pet1)).thenReturn(response1);
+
+        //act
+        var result = mockMvc.perform(get("/api/v1/pets").param("limit", "1"));
+
+        //assert
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(PetController.NEXT_CURSOR_HEADER, PageCursor.encode(1L)))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")));
+        verify(petUseCase, never()).getAllPets();
+    }
+
+    @Test
+    void getAllPets_oldestFirstWithLimit_queriesAgeIndex() throws Exception {
+        //arrange
+        Pet pet = new Pet(3L, "Fido", "Dog", 9, "John");
+        PetResponse response = new PetResponse(3L, "Fido", "Dog", 9, "John", 1L);
+
+        when(petUseCase.getPetsByAge(null, null, true, 1)).thenReturn(List.of(pet));
+        when(petMapper.toResponse(pet)).thenReturn(response);
+
+        //act
+        var result = mockMvc.perform(get("/api/v1/pets").param("sort", "-age").param("limit", "1"));
+
+        //assert
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].age").value(9));
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
 }
@@ -0,0 +1,110 @@
+package com.example.pets.infrastructure.web.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogTest {
+
+    private final List<AccessLogEvent> written = new ArrayList<>();
+
+    @Test
+    void record_sampleRateZero_skipsSuccessesButKeepsErrors() {
+        //arrange
+        AccessLog accessLog = new AccessLog(new AccessLogProperties(true, 0, 16), written::add);
+
+        //act
+        accessLog.record("GET", "/api/v1/pets/1", 200, 1_000);
+        accessLog.record("GET", "/api/v1/pets/2", 404, 1_000);
+        accessLog.record("POST", "/api/v1/pets", 500, 1_000);
+        accessLog.drain();
+
+        //assert
+        assertThat(written).extracting(AccessLogEvent::status).containsExactly(404, 500);
+        assertThat(accessLog.skipped()).isEqualTo(1);
+    }
+
+    @Test
+    void record_fullBuffer_dropsAndCountsUntilTheWriterCatchesUp() {
+        //arrange
+        AccessLog accessLog = new AccessLog(new AccessLogProperties(true, 1, 4), written::add);
+
+        //act
+        for (int i = 1; i <= 6; i++) {
+            accessLog.record("GET", "/api/v1/pets/" + i, 200, 1_000);
+        }
+        accessLog.drain();
+        accessLog.record("GET", "/api/v1/pets/7", 200, 1_000);
+        accessLog.drain();
+
+        //assert
+        assertThat(written).extracting(AccessLogEvent::path).containsExactly(
+                "/api/v1/pets/1", "/api/v1/pets/2", "/api/v1/pets/3", "/api/v1/pets/4", "/api/v1/pets/7");
+        assertThat(accessLog.dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void record_concurrentRequestThreads_everyEventIsWrittenOnceOrCountedAsDropped() throws InterruptedException {
+        //arrange
+        Set<String> paths = ConcurrentHashMap.newKeySet();
+        List<String> duplicates = new ArrayList<>();
+        AccessLog accessLog = new AccessLog(new AccessLogProperties(true, 1, 64), event -> {
+            if (!paths.add(event.path())) {
+                duplicates.add(event.path());
+            }
+        });
+        int threads = 4;
+        int perThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    accessLog.record("GET", thread + "/" + i, 200, 1_000);
+                }
+                done.countDown();
+            }).start();
+        }
+
+        //act
+        while (done.getCount() > 0) {
+            accessLog.drain();
+        }
+        accessLog.drain();
+
+        //assert
+        assertThat(duplicates).isEmpty();
+        assertThat(paths.size() + accessLog.dropped()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void filter_completedRequest_recordsMethodPathAndStatus() throws Exception {
+        //arrange
+        AccessLog accessLog = new AccessLog(new AccessLogProperties(true, 1, 16), written::add);
+        AccessLogFilter filter = new AccessLogFilter(accessLog);
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/v1/pets/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(404);
+
+        //act
+        filter.doFilter(request, response, new MockFilterChain());
+        accessLog.drain();
+
+        //assert
+        assertThat(written).singleElement().satisfies(event -> {
+            assertThat(event.method()).isEqualTo("DELETE");
+            assertThat(event.path()).isEqualTo("/api/v1/pets/7");
+            assertThat(event.status()).isEqualTo(404);
+            assertThat(event.durationNanos()).isNotNegative();
+        });
+    }
+}
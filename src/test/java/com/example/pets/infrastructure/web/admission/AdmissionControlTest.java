@@ -0,0 +1,178 @@
+package com.example.pets.infrastructure.web.admission;
+
+import com.example.pets.infrastructure.web.admission.AdmissionControl.Admission;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_burstUsedUp_refusesThatClientUntilATokenIsBack() {
+        //arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(2, 3, 1000);
+        long now = System.nanoTime();
+
+        //act
+        boolean[] burst = {limiter.tryAcquire("a", now), limiter.tryAcquire("a", now), limiter.tryAcquire("a", now)};
+        boolean overBurst = limiter.tryAcquire("a", now);
+        boolean otherClient = limiter.tryAcquire("b", now);
+        boolean afterHalfASecond = limiter.tryAcquire("a", now + SECOND / 2);
+
+        //assert
+        assertThat(burst).containsOnly(true);
+        assertThat(overBurst).isFalse();
+        assertThat(otherClient).isTrue();
+        assertThat(afterHalfASecond).isTrue();
+        assertThat(limiter.retryAfterNanos()).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void tryAcquire_manyClients_forgetsFullBucketsFirstThenTheClosestToFull() {
+        //arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 2, 64 * 64);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("earlier" + i, now - 10 * SECOND);
+        }
+        // two tokens short, so it is never the bucket closest to full
+        limiter.tryAcquire("busy", now);
+        limiter.tryAcquire("busy", now);
+
+        //act
+        for (int i = 0; i < 5000; i++) {
+            limiter.tryAcquire("later" + i, now);
+        }
+        boolean busyAgain = limiter.tryAcquire("busy", now);
+
+        //assert
+        assertThat(limiter.clients()).isLessThanOrEqualTo(64 * 64);
+        assertThat(busyAgain).isFalse();
+    }
+
+    @Test
+    void tryAcquire_burstOfNewClients_staysWithinMaxClients() {
+        //arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 640);
+        long now = System.nanoTime();
+
+        //act
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("client" + i, now);
+        }
+
+        //assert
+        assertThat(limiter.clients()).isLessThanOrEqualTo(640);
+    }
+
+    @Test
+    void tryAcquire_limitReached_refusesUntilARequestIsReleased() {
+        //arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 100 * MILLISECOND);
+
+        //act
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+        limit.release();
+        boolean afterRelease = limit.tryAcquire();
+
+        //assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(afterRelease).isTrue();
+        assertThat(limit.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void release_slowResponses_cutTheLimitOncePerRoundAndFastOnesGrowIt() {
+        //arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 100, 100 * MILLISECOND);
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+        }
+
+        //act
+        for (int i = 0; i < 20; i++) {
+            limit.release(start, start + SECOND);
+        }
+        int afterSlowRound = limit.limit();
+        long nextRound = start + 2 * SECOND;
+        for (int i = 0; i < 18; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limit.release(nextRound, nextRound + MILLISECOND);
+        }
+        int afterFastResponses = limit.limit();
+
+        //assert
+        assertThat(afterSlowRound).isEqualTo(18);
+        assertThat(afterFastResponses).isEqualTo(25);
+    }
+
+    @Test
+    void admit_overRateOrLimit_refusesWithTheReason() {
+        //arrange
+        AdmissionControl control = new AdmissionControl(new AdmissionProperties(
+                true, "", 1, 2, 1000, 1, 1, 1, Duration.ofSeconds(1)));
+
+        //act
+        Admission first = control.admit("a");
+        Admission whileBusy = control.admit("b");
+        control.release(System.nanoTime());
+        Admission second = control.admit("a");
+        control.releaseUnmeasured();
+        Admission third = control.admit("a");
+
+        //assert
+        assertThat(first).isEqualTo(Admission.ADMITTED);
+        assertThat(whileBusy).isEqualTo(Admission.OVERLOADED);
+        assertThat(second).isEqualTo(Admission.ADMITTED);
+        assertThat(third).isEqualTo(Admission.RATE_LIMITED);
+    }
+
+    @Test
+    void doFilter_clientHeaderSet_limitsEachForwardedClientSeparately() throws Exception {
+        //arrange
+        AdmissionProperties properties = new AdmissionProperties(
+                true, "X-Forwarded-For", 0.1, 1, 1000, 10, 10, 10, Duration.ofSeconds(1));
+        AdmissionFilter filter = new AdmissionFilter(new AdmissionControl(properties), new ClientResolver(properties),
+                Jackson2ObjectMapperBuilder.json().build());
+
+        //act
+        int first = filter(filter, "203.0.113.7, 10.0.0.1");
+        int second = filter(filter, "10.0.0.2");
+        int firstAgain = filter(filter, "198.51.100.1, 10.0.0.1");
+        int withoutHeader = filter(filter, null);
+
+        //assert
+        assertThat(first).isEqualTo(200);
+        assertThat(second).isEqualTo(200);
+        assertThat(firstAgain).isEqualTo(429);
+        assertThat(withoutHeader).isEqualTo(200);
+    }
+
+    private static int filter(AdmissionFilter filter, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/pets");
+        request.setRemoteAddr("192.0.2.1");
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.pets.infrastructure.web.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final IdempotencyStore store =
+            new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), nanos::get);
+
+    @Test
+    void execute_concurrentRequestsWithSameKey_runsTheActionOnceAndSharesItsResponse() throws Exception {
+        //arrange
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        //act
+        List<CompletableFuture<ResponseEntity<String>>> responses = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> store.execute("client", "key", "request", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "pet 1";
+                }, pet -> ResponseEntity.status(HttpStatus.CREATED).body(pet))))
+                .toList();
+        Thread.sleep(100);
+        release.countDown();
+
+        //assert
+        for (CompletableFuture<ResponseEntity<String>> response : responses) {
+            assertThat(response.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("pet 1");
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_firstAttemptFails_releasesTheKeySoARetryRunsAgain() {
+        //arrange
+        assertThatThrownBy(() -> store.execute("client", "key", "request", () -> {
+            throw new IllegalStateException("repository unavailable");
+        }, ResponseEntity::ok)).isInstanceOf(IllegalStateException.class);
+
+        //act
+        ResponseEntity<String> retried = store.execute("client", "key", "request", () -> "pet 1", ResponseEntity::ok);
+
+        //assert
+        assertThat(retried.getBody()).isEqualTo("pet 1");
+        assertThat(retried.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void execute_sameKeyDifferentRequestOrAfterTimeToLive_rejectsThenRunsAgain() {
+        //arrange
+        store.execute("client", "key", "request", () -> "pet 1", ResponseEntity::ok);
+
+        //act + assert
+        assertThatThrownBy(() -> store.execute("client", "key", "other request", () -> "pet 2", ResponseEntity::ok))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertThat(store.execute("client", "key", "other request", () -> "pet 2", ResponseEntity::ok).getBody())
+                .isEqualTo("pet 2");
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_sameKeyFromAnotherClient_runsTheActionForThatClient() {
+        //arrange
+        store.execute("client a", "key", "request", () -> "pet 1", ResponseEntity::ok);
+
+        //act
+        ResponseEntity<String> other = store.execute("client b", "key", "request", () -> "pet 2", ResponseEntity::ok);
+        ResponseEntity<String> retried = store.execute("client a", "key", "request", () -> "pet 3", ResponseEntity::ok);
+
+        //assert
+        assertThat(other.getBody()).isEqualTo("pet 2");
+        assertThat(other.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+        assertThat(retried.getBody()).isEqualTo("pet 1");
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_retryRendersDifferently_rendersTheStoredResultForTheRetry() {
+        //arrange
+        store.execute("client", "key", "request", () -> "pet 1", pet -> ResponseEntity.ok().eTag("json").body(pet));
+
+        //act
+        ResponseEntity<String> retried = store.execute("client", "key", "request", () -> "pet 2",
+                pet -> ResponseEntity.ok().eTag("cbor").body(pet));
+
+        //assert
+        assertThat(retried.getBody()).isEqualTo("pet 1");
+        assertThat(retried.getHeaders().getETag()).isEqualTo("\"cbor\"");
+        assertThat(retried.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.pets.infrastructure.web.json;
+
+import com.example.pets.infrastructure.web.dto.PetFields;
+import com.example.pets.infrastructure.web.dto.PetRepresentation;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PetJsonCacheTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final PetJsonCache cache = new PetJsonCache(objectMapper, new PetJsonCacheProperties(true, 100));
+
+    private final PetResponse toto = new PetResponse(1L, "Toto", "Dog", 3, "Natasha", 1L);
+    private final PetResponse bini = new PetResponse(2L, "Bini", "Cat", null, null, 4L);
+
+    @Test
+    void writeArray_repeatedLists_matchesJacksonAndSerializesEachPetOnce() throws Exception {
+        //arrange
+        List<PetResponse> pets = List.of(toto, bini);
+        cache.writeArray(pets, new ByteArrayOutputStream());
+
+        //act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeArray(pets, out);
+
+        //assert
+        assertThat(out.toString()).isEqualTo(objectMapper.writeValueAsString(pets));
+        assertThat(cache.stats().missCount()).isEqualTo(2);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bytesOf_changedPetWithSameId_serializesTheNewResponse() throws Exception {
+        //arrange
+        cache.bytesOf(toto);
+        PetResponse renamed = new PetResponse(1L, "Koki", "Dog", 3, "Natasha", 2L);
+
+        //act
+        byte[] json = cache.bytesOf(renamed);
+
+        //assert
+        assertThat(new String(json)).isEqualTo(objectMapper.writeValueAsString(renamed));
+        assertThat(cache.bytesOf(renamed)).isSameAs(json);
+    }
+
+    @Test
+    void converter_petAndListTypes_writesCachedJsonWithContentLength() throws Exception {
+        //arrange
+        PetJsonHttpMessageConverter converter = new PetJsonHttpMessageConverter(cache, objectMapper);
+        MockHttpOutputMessage single = new MockHttpOutputMessage();
+        MockHttpOutputMessage empty = new MockHttpOutputMessage();
+
+        //act
+        converter.write(toto, PetResponse.class, MediaType.APPLICATION_JSON, single);
+        converter.write(List.of(), List.class, MediaType.APPLICATION_JSON, empty);
+
+        //assert
+        assertThat(single.getBodyAsString()).isEqualTo(objectMapper.writeValueAsString(toto));
+        assertThat(single.getHeaders().getContentLength()).isEqualTo(single.getBodyAsBytes().length);
+        assertThat(empty.getBodyAsString()).isEqualTo("[]");
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(PetResponse.class, MediaType.APPLICATION_XML)).isFalse();
+    }
+
+    @Test
+    void converter_partialPets_writesOnlyTheSelectedFieldsWithoutCaching() throws Exception {
+        //arrange
+        PetJsonHttpMessageConverter converter = new PetJsonHttpMessageConverter(cache, objectMapper);
+        PetFields fields = PetFields.parse("name, id");
+        List<PetRepresentation> pets = List.of(fields.select(toto), fields.select(bini));
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+
+        //act
+        converter.write(pets, List.class, MediaType.APPLICATION_JSON, out);
+
+        //assert
+        assertThat(out.getBodyAsString()).isEqualTo("[{\"id\":1,\"name\":\"Toto\"},{\"id\":2,\"name\":\"Bini\"}]");
+        assertThat(cache.stats().requestCount()).isZero();
+        // what Jackson's converter writes for the declared List<PetRepresentation> when the cache is off
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, PetRepresentation.class);
+        assertThat(objectMapper.writerFor(listType).writeValueAsString(pets)).isEqualTo(out.getBodyAsString());
+    }
+}
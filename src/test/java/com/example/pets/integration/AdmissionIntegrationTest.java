@@ -0,0 +1,49 @@
+package com.example.pets.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"pets.admission.enabled=true", "pets.admission.rate-per-second=0.1", "pets.admission.burst=2"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("inmemory")
+class AdmissionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void apiRequests_overTheClientRate_areRefusedWith429BeforeReachingTheController() throws Exception {
+        mockMvc.perform(get("/api/v1/pets")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/pets/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/v1/pets"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"))
+                .andExpect(jsonPath("$.path").value("/api/v1/pets"))
+                .andExpect(jsonPath("$.timestamp").isString())
+                .andExpect(jsonPath("$.details[0]").value("Retry after 10 seconds"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("pets_admission_requests_total{result=\"admitted\"} 2.0")
+                .contains("pets_admission_requests_total{result=\"rate_limited\"} 1.0")
+                .contains("pets_admission_limit")
+                .contains("pets_admission_in_flight");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.pets.integration;
+
+import com.example.pets.PetServiceApplication;
+import com.example.pets.domain.ports.PetRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the service with and without admission control, with a repository that serves only a few findById calls
+ * at a time, and fires a burst of concurrent GET requests far beyond that capacity at each. Run with
+ * {@code mvn -Pload-test test}.
+ */
+@Tag("load")
+class AdmissionLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionLoadTest.class);
+
+    private static final int REPOSITORY_CAPACITY = 8;
+    private static final long REPOSITORY_DELAY_MILLIS = 20;
+    private static final int CONCURRENT_REQUESTS = 1000;
+
+    @Test
+    void admissionControl_overload_shedsRequestsAndKeepsP99OfAdmittedOnesLow() throws Exception {
+        //arrange
+        BurstResult unlimited = runBurst(false);
+
+        //act
+        BurstResult limited = runBurst(true);
+
+        //assert
+        log.info("{} concurrent requests, repository serving {} at a time for {} ms: without admission control "
+                        + "{} answered, p99 {} ms; with it {} answered, p99 {} ms, {} shed",
+                CONCURRENT_REQUESTS, REPOSITORY_CAPACITY, REPOSITORY_DELAY_MILLIS,
+                unlimited.answered(), unlimited.p99Millis(), limited.answered(), limited.p99Millis(), limited.shed());
+        assertThat(unlimited.shed()).isZero();
+        assertThat(limited.shed()).isPositive();
+        assertThat(limited.p99Millis()).isLessThan(unlimited.p99Millis() / 2);
+    }
+
+    private BurstResult runBurst(boolean admissionControl) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PetServiceApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new SlowRepositoryPostProcessor()))
+                .run("--server.port=0",
+                        "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS,
+                        "--pets.admission.enabled=" + admissionControl,
+                        // one client sends the whole burst; only the in-flight limit should shed it
+                        "--pets.admission.rate-per-second=1000000",
+                        "--pets.admission.burst=1000000",
+                        "--pets.access-log.enabled=false")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/pets"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Bini\",\"species\":\"Cat\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(created.statusCode()).isEqualTo(201);
+
+            HttpRequest get = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/pets/1"))
+                    .timeout(Duration.ofMinutes(1))
+                    .build();
+            // warms up the JIT and the connection pool, and lets the in-flight limit settle
+            burst(client, get);
+            return burst(client, get);
+        }
+    }
+
+    private static BurstResult burst(HttpClient client, HttpRequest request) {
+        List<CompletableFuture<long[]>> futures = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            long start = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(response -> new long[]{response.statusCode(), (System.nanoTime() - start) / 1_000_000}));
+        }
+        List<long[]> responses = futures.stream().map(CompletableFuture::join).toList();
+        List<Long> latencies = responses.stream().filter(response -> response[0] == 200)
+                .map(response -> response[1]).sorted().toList();
+        long shed = responses.stream().filter(response -> response[0] == 503).count();
+        assertThat(latencies.size() + shed).isEqualTo(CONCURRENT_REQUESTS);
+        return new BurstResult(latencies.size(), shed, latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1));
+    }
+
+    private record BurstResult(int answered, long shed, long p99Millis) {
+    }
+
+    // registered by hand so it runs before the application's own post-processors and sits right on the adapter
+    private static final class SlowRepositoryPostProcessor implements BeanPostProcessor {
+
+        private final Semaphore capacity = new Semaphore(REPOSITORY_CAPACITY, true);
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof PetRepository repository)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(PetRepository.class.getClassLoader(), new Class<?>[]{PetRepository.class},
+                    (proxy, method, args) -> {
+                        boolean slow = method.getName().equals("findById");
+                        if (slow) {
+                            capacity.acquire();
+                            Thread.sleep(REPOSITORY_DELAY_MILLIS);
+                        }
+                        try {
+                            return method.invoke(repository, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        } finally {
+                            if (slow) {
+                                capacity.release();
+                            }
+                        }
+                    });
+        }
+    }
+}
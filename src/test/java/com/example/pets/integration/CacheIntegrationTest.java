@@ -0,0 +1,62 @@
+package com.example.pets.integration;
+
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "pets.cache.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("inmemory")
+class CacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getPet_cacheEnabled_servesRepeatedReadsFromCacheAndSeesUpdates() throws Exception {
+        mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/pets/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/pets/1")).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/v1/pets/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetUpdateRequest("Mici", "Cat", 3, "Natasha"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/pets/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Mici"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("cache_gets_total{cache=\"pets\",result=\"hit\"} 1.0")
+                .contains("cache_gets_total{cache=\"pets\",result=\"miss\"} 2.0")
+                .contains("cache_evictions_total{cache=\"pets\"")
+                // the created and updated pets are serialized once, every other response reuses their bytes
+                .contains("cache_gets_total{cache=\"pet-json\",result=\"miss\"} 2.0")
+                .contains("cache_gets_total{cache=\"pet-json\",result=\"hit\"} 3.0");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pets.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("inmemory")
+class ChangeFeedIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void streamChanges_unknownLastEventId_resetsAndResumesFromTheResetIdWithNewChanges() throws Exception {
+        //arrange
+        List<String> reset = open("stale-42").toList();
+        String resetId = reset.stream().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+        //act
+        List<String> event;
+        HttpResponse<String> created;
+        try (Stream<String> stream = open(resetId)) {
+            Iterator<String> resumed = stream.iterator();
+            created = client.send(HttpRequest.newBuilder(URI.create(baseUrl()))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Bini\",\"species\":\"Cat\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            event = CompletableFuture.supplyAsync(() -> nextEvent(resumed)).get(10, TimeUnit.SECONDS);
+        }
+
+        //assert
+        assertThat(reset).contains("event:reset");
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(event).contains("event:created");
+        assertThat(event).anySatisfy(line -> assertThat(line).startsWith("data:")
+                .contains("\"version\":1,").contains("\"name\":\"Bini\""));
+    }
+
+    private Stream<String> open(String lastEventId) throws Exception {
+        HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/changes"))
+                        .header("Accept", "text/event-stream")
+                        .header("Last-Event-ID", lastEventId)
+                        .timeout(Duration.ofSeconds(10))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.body();
+    }
+
+    private static List<String> nextEvent(Iterator<String> lines) {
+        List<String> event = new ArrayList<>();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty() && !event.isEmpty()) {
+                return event;
+            }
+            if (!line.isEmpty() && !line.startsWith(":")) {
+                event.add(line);
+            }
+        }
+        return event;
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port + "/api/v1/pets";
+    }
+}
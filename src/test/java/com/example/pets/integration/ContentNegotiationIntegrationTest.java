@@ -0,0 +1,138 @@
+package com.example.pets.integration;
+
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("inmemory")
+class ContentNegotiationIntegrationTest {
+
+    private static final String PROTOBUF = "application/x-protobuf";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ProtobufMapper protobufMapper = new ProtobufMapper();
+    private NativeProtobufSchema schema;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("proto/pets.proto")) {
+            schema = ProtobufSchemaLoader.std.loadNative(in, true);
+        }
+        // enough pets for the list to pass the compression threshold
+        for (char letter = 'a'; letter <= 'z'; letter++) {
+            post(new PetCreateRequest("Cbor" + letter, "Dog", letter - 'a', "Natasha"));
+        }
+    }
+
+    @Test
+    void createAndList_protobuf_roundTripThroughTheSchema() throws Exception {
+        //arrange
+        byte[] request = protobufMapper.writer(schema.forType("PetCreateRequest"))
+                .writeValueAsBytes(new PetCreateRequest("Proto", "Cat", 2, null));
+
+        //act
+        HttpResponse<byte[]> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl()))
+                        .header("Content-Type", PROTOBUF)
+                        .header("Accept", PROTOBUF)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(request))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> list = get(baseUrl() + "?species=cat", PROTOBUF);
+        HttpResponse<byte[]> missing = get(baseUrl() + "/" + Long.MAX_VALUE, PROTOBUF);
+
+        //assert
+        assertThat(created.statusCode()).isEqualTo(201);
+        assertThat(created.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith(PROTOBUF));
+        PetResponse pet = protobufMapper.readerFor(PetResponse.class).with(schema.forType("PetResponse"))
+                .readValue(created.body());
+        assertThat(pet.name()).isEqualTo("Proto");
+        assertThat(pet.ownerName()).isNull();
+        JsonNode pets = protobufMapper.readerFor(JsonNode.class).with(schema.forType("PetList")).readValue(list.body());
+        assertThat(pets.get("pets")).anySatisfy(node -> assertThat(node.get("id").asLong()).isEqualTo(pet.id()));
+        assertThat(missing.statusCode()).isEqualTo(404);
+        assertThat(objectMapper.readTree(missing.body()).get("status").asInt()).isEqualTo(404);
+    }
+
+    @Test
+    void getAllPets_cborAndSmile_decodeToTheJsonList() throws Exception {
+        //act
+        PetResponse[] json = objectMapper.readValue(get(baseUrl() + "?species=dog", "application/json").body(),
+                PetResponse[].class);
+        PetResponse[] cbor = new CBORMapper().readValue(get(baseUrl() + "?species=dog", "application/cbor").body(),
+                PetResponse[].class);
+        PetResponse[] smile = new SmileMapper().readValue(
+                get(baseUrl() + "?species=dog", "application/x-jackson-smile").body(), PetResponse[].class);
+
+        //assert
+        assertThat(json).hasSizeGreaterThanOrEqualTo(26);
+        assertThat(cbor).containsExactly(json);
+        assertThat(smile).containsExactly(json);
+    }
+
+    @Test
+    void getAllPets_gzipAccepted_compressesListsButNotSmallResponses() throws Exception {
+        //act
+        HttpResponse<byte[]> list = client.send(HttpRequest.newBuilder(URI.create(baseUrl() + "?species=dog"))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> single = client.send(HttpRequest.newBuilder(URI.create(baseUrl() + "/1"))
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        //assert
+        assertThat(list.headers().firstValue("Content-Encoding")).contains("gzip");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(list.body()))) {
+            assertThat(List.of(objectMapper.readValue(in, PetResponse[].class))).hasSizeGreaterThanOrEqualTo(26);
+        }
+        assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private void post(PetCreateRequest request) throws Exception {
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl()))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpResponse<byte[]> get(String url, String accept) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).header("Accept", accept).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + port + "/api/v1/pets";
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.pets.integration;
+
+import com.example.pets.PetServiceApplication;
+import com.example.pets.domain.model.Pet;
+import com.example.pets.infrastructure.persistence.durable.DurabilityProperties;
+import com.example.pets.infrastructure.persistence.durable.DurablePetRepository;
+import com.example.pets.infrastructure.persistence.inmemory.InMemoryPetRepositoryAdapter;
+import com.example.pets.infrastructure.persistence.inmemory.PetEntityMapper;
+import com.example.pets.infrastructure.web.dto.PetCreateRequest;
+import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the durable in-memory deployment twice on one data directory, the way a restart or a second instance
+ * would see it.
+ */
+class DurableIntegrationTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void putPet_ifMatchFromEarlierContext_isAcceptedAfterRestart() throws Exception {
+        //arrange
+        String eTag;
+        try (ConfigurableApplicationContext first = start()) {
+            eTag = mockMvc(first).perform(post("/api/v1/pets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        }
+
+        //act
+        try (ConfigurableApplicationContext second = start()) {
+            MockMvc mockMvc = mockMvc(second);
+            mockMvc.perform(put("/api/v1/pets/1")
+                            .header(HttpHeaders.IF_MATCH, eTag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PetUpdateRequest("Mici", "Cat", 3, "Natasha"))))
+                    .andExpect(status().isOk());
+
+            //assert
+            mockMvc.perform(put("/api/v1/pets/1")
+                            .header(HttpHeaders.IF_MATCH, eTag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PetUpdateRequest("Koki", "Cat", 3, "Natasha"))))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(get("/api/v1/pets/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Mici"))
+                    .andExpect(jsonPath("$.version").value(2));
+        }
+    }
+
+    @Test
+    void close_behindCacheAndMetricsDecorators_flushesTheLogAndStopsItsThreads() throws Exception {
+        //arrange
+        ConfigurableApplicationContext context = start("--pets.cache.enabled=true",
+                "--pets.durability.group-commit-window=20ms", "--pets.durability.snapshot-interval=1h");
+        mockMvc(context).perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))))
+                .andExpect(status().isCreated());
+
+        //act
+        context.close();
+
+        //assert
+        assertThat(Thread.getAllStackTraces().keySet()).extracting(Thread::getName)
+                .doesNotContain("pet-wal-writer", "pet-snapshot");
+        DurablePetRepository reopened = new DurablePetRepository(
+                new InMemoryPetRepositoryAdapter(Mappers.getMapper(PetEntityMapper.class)),
+                new DurabilityProperties(true, directory, Duration.ZERO, true, Duration.ZERO));
+        reopened.recover();
+        try {
+            assertThat(reopened.findAll()).extracting(Pet::getName).containsExactly("Bini");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start(String... args) {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--pets.durability.directory=" + directory));
+        arguments.addAll(List.of(args));
+        return new SpringApplicationBuilder(PetServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("inmemory", "durable")
+                // arguments, because default properties would lose to application-durable.properties
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+}
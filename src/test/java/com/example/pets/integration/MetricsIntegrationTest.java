@@ -0,0 +1,41 @@
+package com.example.pets.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("inmemory")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpoint_afterRequests_exposesPortTimersAndGauges() throws Exception {
+        mockMvc.perform(get("/api/v1/pets/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("pets_usecase_seconds_bucket{operation=\"getPet\"")
+                .contains("pets_repository_seconds_count{operation=\"findById\"")
+                .contains("pets_usecase_errors_total{exception=\"PetNotFoundException\",operation=\"getPet\"")
+                .contains("pets_repository_size")
+                .contains("pets_index_keys{index=\"species\"")
+                .contains("pets_access_log_events_total{result=\"written\"}");
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.pets.integration;
 
+import com.example.pets.infrastructure.web.dto.BatchResponse;
+import com.example.pets.infrastructure.web.dto.PetBatchUpdateRequest;
 import com.example.pets.infrastructure.web.dto.PetCreateRequest;
 import com.example.pets.infrastructure.web.dto.PetResponse;
 import com.example.pets.infrastructure.web.dto.PetUpdateRequest;
@@ -8,13 +10,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -86,6 +97,160 @@ class PetControllerIntegrationTest {
         assertThat(response.ownerName()).isEqualTo("NatashaUpdated");
     }
 
+    @Test
+    void createPet_idempotencyKey_replaysRetriesAndRejectsReuseForAnotherPet() throws Exception {
+        String body = objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"));
+        MvcResult first = mockMvc.perform(post("/api/v1/pets")
+                        .header("Idempotency-Key", "create-bini")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        MvcResult retry = mockMvc.perform(post("/api/v1/pets")
+                        .header("Idempotency-Key", "create-bini")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+
+        mockMvc.perform(post("/api/v1/pets")
+                        .header("Idempotency-Key", "create-bini")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Mici", "Cat", 3, "Natasha"))))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void updatePet_ifMatch_rejectsStaleVersionWithPreconditionFailed() throws Exception {
+        PetCreateRequest createRequest = new PetCreateRequest("Bini", "Cat", 2, "Natasha");
+        MvcResult postResult = mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-json\""))
+                .andReturn();
+        Long petId = objectMapper.readValue(postResult.getResponse().getContentAsString(), PetResponse.class).id();
+        String createdETag = postResult.getResponse().getHeader(HttpHeaders.ETAG);
+        String updateBody = objectMapper.writeValueAsString(new PetUpdateRequest("Mici", "Cat", 3, "Natasha"));
+
+        String updatedETag = mockMvc.perform(put("/api/v1/pets/" + petId)
+                        .header(HttpHeaders.IF_MATCH, createdETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-json\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/v1/pets/" + petId)
+                        .header(HttpHeaders.IF_MATCH, createdETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody))
+                .andExpect(status().isPreconditionFailed());
+        // a tag from before a restart names a version that may belong to another write
+        mockMvc.perform(put("/api/v1/pets/" + petId)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/pets/" + petId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updatedETag));
+    }
+
+    @Test
+    void getAllPets_ifNoneMatch_returnsNotModifiedUntilAPetChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/v1/pets"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // the same list in another encoding or with other fields is another representation
+        String cborETag = mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String partialETag = mockMvc.perform(get("/api/v1/pets").param("fields", "id,name")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(List.of(eTag, cborETag, partialETag)).doesNotHaveDuplicates();
+        mockMvc.perform(get("/api/v1/pets").param("fields", "id,name").header(HttpHeaders.IF_NONE_MATCH, partialETag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))))
+                .andExpect(status().isCreated());
+
+        String changedETag = mockMvc.perform(get("/api/v1/pets").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changedETag).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void searchPets_partialAndMisspelledName_returnsRankedMatches() throws Exception {
+        for (PetCreateRequest request : List.of(
+                new PetCreateRequest("Binkelman", "Dog", 4, "Ana"),
+                new PetCreateRequest("Rex", "Dog", 5, "Binoche"))) {
+            mockMvc.perform(post("/api/v1/pets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult prefix = mockMvc.perform(get("/api/v1/pets/search").param("q", "binke"))
+                .andExpect(status().isOk())
+                .andReturn();
+        MvcResult typo = mockMvc.perform(get("/api/v1/pets/search").param("q", "binoch").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(objectMapper.readValue(prefix.getResponse().getContentAsString(), PetResponse[].class))
+                .extracting(PetResponse::name).containsExactly("Binkelman");
+        assertThat(objectMapper.readValue(typo.getResponse().getContentAsString(), PetResponse[].class))
+                .extracting(PetResponse::name).contains("Rex");
+        mockMvc.perform(get("/api/v1/pets/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStatistics_afterCreateAndUpdate_reflectsTheChange() throws Exception {
+        String before = mockMvc.perform(get("/api/v1/pets/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long hamstersBefore = objectMapper.readTree(before).path("petsBySpecies").path("hamster").asLong();
+        MvcResult created = mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Nibbles", "Hamster", 1, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long petId = objectMapper.readValue(created.getResponse().getContentAsString(), PetResponse.class).id();
+
+        String afterCreate = mockMvc.perform(get("/api/v1/pets/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(put("/api/v1/pets/" + petId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetUpdateRequest("Nibbles", "Gerbil", 1, null))))
+                .andExpect(status().isOk());
+        String afterUpdate = mockMvc.perform(get("/api/v1/pets/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(afterCreate).path("petsBySpecies").path("hamster").asLong())
+                .isEqualTo(hamstersBefore + 1);
+        assertThat(objectMapper.readTree(afterUpdate).path("petsBySpecies").path("hamster").asLong())
+                .isEqualTo(hamstersBefore);
+        assertThat(objectMapper.readTree(afterUpdate).path("petsBySpecies").path("gerbil").asLong()).isPositive();
+    }
+
     @Test
     void deletePet_existingPet_returnsNoContent() throws Exception {
         PetCreateRequest createRequest = new PetCreateRequest("Bini", "Cat", 2, "Natasha");
@@ -123,4 +288,177 @@ class PetControllerIntegrationTest {
         PetResponse[] responses = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PetResponse[].class);
         assertThat(responses).hasSize(2);
     }
+
+    @Test
+    void getAllPets_withLimit_pagesThroughAllPets() throws Exception {
+        for (String name : new String[]{"Bini", "Fido", "Koki"}) {
+            mockMvc.perform(post("/api/v1/pets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PetCreateRequest(name, "Cat", 2, "Natasha"))))
+                    .andExpect(status().isCreated());
+        }
+
+        int seen = 0;
+        String cursor = null;
+        do {
+            var request = get("/api/v1/pets").param("limit", "2");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            MvcResult mvcResult = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            PetResponse[] page = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PetResponse[].class);
+            assertThat(page.length).isLessThanOrEqualTo(2);
+            seen += page.length;
+            cursor = mvcResult.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+
+        MvcResult all = mockMvc.perform(get("/api/v1/pets")).andReturn();
+        assertThat(seen).isEqualTo(objectMapper.readValue(all.getResponse().getContentAsString(), PetResponse[].class).length);
+    }
+
+    @Test
+    void getAllPets_invalidPageParameters_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/pets").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v1/pets").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportPets_ndjsonAndJsonArray_streamEveryPet() throws Exception {
+        mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Bini", "Cat", 2, "Natasha"))))
+                .andExpect(status().isCreated());
+        MvcResult all = mockMvc.perform(get("/api/v1/pets")).andReturn();
+        int total = objectMapper.readValue(all.getResponse().getContentAsString(), PetResponse[].class).length;
+
+        MvcResult ndjsonStarted = mockMvc.perform(get("/api/v1/pets/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult ndjson = mockMvc.perform(asyncDispatch(ndjsonStarted))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        String[] lines = ndjson.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(total);
+        assertThat(objectMapper.readValue(lines[0], PetResponse.class).id()).isNotNull();
+
+        MvcResult arrayStarted = mockMvc.perform(get("/api/v1/pets/export").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult array = mockMvc.perform(asyncDispatch(arrayStarted))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+        assertThat(objectMapper.readValue(array.getResponse().getContentAsString(), PetResponse[].class)).hasSize(total);
+    }
+
+    @Test
+    void readEndpoints_fields_returnOnlyTheSelectedProperties() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Fifi", "Dog", 4, "Natasha"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long id = objectMapper.readValue(created.getResponse().getContentAsString(), PetResponse.class).id();
+
+        mockMvc.perform(get("/api/v1/pets/" + id).param("fields", "name,id"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":" + id + ",\"name\":\"Fifi\"}", JsonCompareMode.STRICT));
+        mockMvc.perform(get("/api/v1/pets/search").param("q", "fifi").param("fields", "ownerName"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"ownerName\":\"Natasha\"}]", JsonCompareMode.STRICT));
+
+        MvcResult exportStarted = mockMvc.perform(get("/api/v1/pets/export").param("fields", "id"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String export = mockMvc.perform(asyncDispatch(exportStarted)).andReturn().getResponse().getContentAsString();
+        assertThat(export.lines()).allSatisfy(line -> assertThat(line.strip()).matches("\\{\"id\":\\d+}"));
+
+        mockMvc.perform(get("/api/v1/pets").param("fields", "id,colour"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPets_filteredBySpeciesAndOwner_returnsMatchingPets() throws Exception {
+        mockMvc.perform(post("/api/v1/pets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new PetCreateRequest("Rex", "Iguana", 4, "Marija"))))
+                .andExpect(status().isCreated());
+
+        MvcResult bySpecies = mockMvc.perform(get("/api/v1/pets").param("species", "iguana"))
+                .andExpect(status().isOk())
+                .andReturn();
+        PetResponse[] iguanas = objectMapper.readValue(bySpecies.getResponse().getContentAsString(), PetResponse[].class);
+        assertThat(iguanas).extracting(PetResponse::name).containsExactly("Rex");
+
+        MvcResult byOwner = mockMvc.perform(get("/api/v1/pets").param("owner", "Marija").param("species", "Cat"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(objectMapper.readValue(byOwner.getResponse().getContentAsString(), PetResponse[].class)).isEmpty();
+
+        mockMvc.perform(get("/api/v1/pets").param("species", "Iguana").param("limit", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllPets_ageRangeYoungestFirst_returnsPetsInAgeOrder() throws Exception {
+        for (int age : new int[]{40, 41, 42}) {
+            mockMvc.perform(post("/api/v1/pets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new PetCreateRequest("Tortoise", "Turtle", age, "Ana"))))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/pets")
+                        .param("minAge", "40").param("maxAge", "41").param("sort", "age"))
+                .andExpect(status().isOk())
+                .andReturn();
+        PetResponse[] responses = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), PetResponse[].class);
+        assertThat(responses).extracting(PetResponse::age).containsExactly(40, 41);
+
+        mockMvc.perform(get("/api/v1/pets").param("sort", "name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchEndpoints_mixedItems_returnPerItemResults() throws Exception {
+        List<PetCreateRequest> creates = Arrays.asList(
+                new PetCreateRequest("Bubbles", "Fish", 1, "Ana"),
+                new PetCreateRequest("Bad1", "Fish", 1, "Ana"),
+                null,
+                new PetCreateRequest("Nemo", "Fish", 2, "Ana"));
+        BatchResponse created = performBatch(post("/api/v1/pets:batch"), creates);
+        assertThat(created.succeeded()).isEqualTo(2);
+        assertThat(created.results()).extracting(r -> r.status()).containsExactly(201, 400, 400, 201);
+        Long bubblesId = created.results().get(0).id();
+        Long nemoId = created.results().get(3).id();
+        assertThat(nemoId).isGreaterThan(bubblesId);
+
+        List<PetBatchUpdateRequest> updates = List.of(
+                new PetBatchUpdateRequest(bubblesId, "Bubbles", "Fish", 5, "Ana"),
+                new PetBatchUpdateRequest(bubblesId, "Bubbles", "Fish", 6, "Ana"),
+                new PetBatchUpdateRequest(Long.MAX_VALUE, "Ghost", "Fish", 1, "Ana"));
+        BatchResponse updated = performBatch(patch("/api/v1/pets:batch"), updates);
+        assertThat(updated.results()).extracting(r -> r.status()).containsExactly(200, 400, 404);
+        assertThat(updated.results().get(0).pet().age()).isEqualTo(5);
+
+        BatchResponse deleted = performBatch(delete("/api/v1/pets:batch"), List.of(bubblesId, nemoId, Long.MAX_VALUE));
+        assertThat(deleted.results()).extracting(r -> r.status()).containsExactly(204, 204, 404);
+        mockMvc.perform(get("/api/v1/pets/" + nemoId))
+                .andExpect(status().isNotFound());
+    }
+
+    private BatchResponse performBatch(MockHttpServletRequestBuilder request, List<?> body) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), BatchResponse.class);
+    }
 }
@@ -0,0 +1,141 @@
+package com.example.pets.integration;
+
+import com.example.pets.PetServiceApplication;
+import com.example.pets.domain.ports.PetRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the service twice, on Tomcat's platform thread pool and on virtual threads, with a repository whose
+ * findById blocks, and fires a burst of concurrent GET requests at each. Run with
+ * {@code JAVA_HOME=<jdk 21> mvn -Pjava21,load-test test}.
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int TOMCAT_THREADS = 50;
+    private static final int CONCURRENT_REQUESTS = 500;
+    private static final long REPOSITORY_DELAY_MILLIS = 250;
+
+    @Test
+    void virtualThreads_blockingRepository_moreRequestsInFlightAndLowerP99() throws Exception {
+        //arrange
+        LoadResult platform = runBurst(false);
+
+        //act
+        LoadResult virtual = runBurst(true);
+
+        //assert
+        log.info("{} concurrent requests, repository blocking {} ms, {} Tomcat threads: platform threads max in-flight {}, p99 {} ms; "
+                        + "virtual threads max in-flight {}, p99 {} ms",
+                CONCURRENT_REQUESTS, REPOSITORY_DELAY_MILLIS, TOMCAT_THREADS,
+                platform.maxInFlight(), platform.p99Millis(), virtual.maxInFlight(), virtual.p99Millis());
+        assertThat(platform.maxInFlight()).isLessThanOrEqualTo(TOMCAT_THREADS);
+        assertThat(virtual.maxInFlight()).isGreaterThan(TOMCAT_THREADS * 4);
+        assertThat(virtual.p99Millis()).isLessThan(platform.p99Millis());
+    }
+
+    private LoadResult runBurst(boolean virtualThreads) throws Exception {
+        BlockingRepositoryPostProcessor blocking = new BlockingRepositoryPostProcessor();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PetServiceApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(blocking))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        // a burst of new connections must not overflow the listen backlog and wait for SYN retries
+                        "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        // the burst comes from one client and is meant to queue, not to be shed
+                        "--pets.admission.enabled=false",
+                        // per-request log lines would make the burst CPU-bound on small machines
+                        "--logging.level.com.example.pets.infrastructure.web=WARN")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/pets"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Bini\",\"species\":\"Cat\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(created.statusCode()).isEqualTo(201);
+
+            HttpRequest get = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/pets/1"))
+                    .timeout(Duration.ofMinutes(1))
+                    .build();
+            // warms up the JIT and the connection pool so the measured burst only sees the thread model
+            burst(client, get, CONCURRENT_REQUESTS);
+            blocking.maxInFlight.set(0);
+            List<Long> latencies = burst(client, get, CONCURRENT_REQUESTS);
+            return new LoadResult(blocking.maxInFlight.get(), latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1));
+        }
+    }
+
+    private static List<Long> burst(HttpClient client, HttpRequest request, int requests) {
+        List<CompletableFuture<Long>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(response -> {
+                        assertThat(response.statusCode()).isEqualTo(200);
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }));
+        }
+        return futures.stream().map(CompletableFuture::join).sorted().toList();
+    }
+
+    private record LoadResult(int maxInFlight, long p99Millis) {
+    }
+
+    // registered by hand so it runs before the application's own post-processors and sits right on the adapter
+    private static final class BlockingRepositoryPostProcessor implements BeanPostProcessor {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof PetRepository repository)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(PetRepository.class.getClassLoader(), new Class<?>[]{PetRepository.class},
+                    (proxy, method, args) -> {
+                        boolean blocks = method.getName().equals("findById");
+                        if (blocks) {
+                            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            Thread.sleep(REPOSITORY_DELAY_MILLIS);
+                        }
+                        try {
+                            return method.invoke(repository, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        } finally {
+                            if (blocks) {
+                                inFlight.decrementAndGet();
+                            }
+                        }
+                    });
+        }
+    }
+}